@@ -58,6 +58,9 @@ public void init() {
         setTimingsEnabled(this.moduleEnabled && config.isEnabled());
         setHistoryInterval(config.getHistoryInterval());
         setHistoryLength(config.getHistoryLength());
+        if (this.moduleEnabled && config.getMetricsPort() > 0) {
+            TimingsMetricsServer.start(config.getMetricsAddress(), config.getMetricsPort());
+        }
 
         SpongeImpl.getLogger().debug("Sponge Timings: " + this.timingsEnabled +
                                     " - Verbose: " + this.verboseEnabled +
@@ -0,0 +1,277 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package co.aikar.timings;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.interfaces.world.IMixinWorldServer;
+import org.spongepowered.common.world.WorldManager;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * Records the duration of every server tick, whether timings are enabled or
+ * not, and logs ticks exceeding the configured threshold.
+ *
+ * <p>A watcher thread notices ticks that run past the threshold and captures
+ * the phases each world is processing and the stack of the server thread
+ * while the tick is still running. Once the tick ends, the handlers that
+ * took the longest in the tick are added if timings are enabled.</p>
+ */
+public final class TickSpikeRecorder {
+
+    private static final int HISTORY_TICKS = 1200;
+    private static final int TOP_HANDLERS = 10;
+    private static final long WATCH_INTERVAL_MILLIS = 10;
+    // Upper bounds of the duration histogram buckets, the last bucket is unbounded
+    static final long[] BUCKET_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000};
+
+    // Guards the tick history, which is read by the metrics listener
+    private static final Object historyLock = new Object();
+    private static final long[] durations = new long[HISTORY_TICKS];
+    private static int durationIndex;
+    private static int durationCount;
+    private static final long[] buckets = new long[BUCKET_MILLIS.length + 1];
+    private static long totalTicks;
+    private static long totalNanos;
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("Sponge Tick Spike Writer")
+            .setDaemon(true)
+            .build());
+    @Nullable private static Thread watcher;
+    @Nullable private static volatile Thread serverThread;
+    private static volatile long tickStart;
+    private static volatile long thresholdNanos;
+    @Nullable private static volatile Capture capture;
+
+    private TickSpikeRecorder() {
+    }
+
+    public static void onTickStart() {
+        if (serverThread == null) {
+            serverThread = Thread.currentThread();
+            thresholdNanos = TimeUnit.MILLISECONDS.toNanos(SpongeImpl.getGlobalConfig().getConfig().getTimings().getTickSpikeThreshold());
+            if (thresholdNanos > 0) {
+                startWatcher();
+            }
+        }
+        capture = null;
+        tickStart = System.nanoTime();
+    }
+
+    public static void onTickEnd() {
+        final long start = tickStart;
+        if (start == 0) {
+            return;
+        }
+        tickStart = 0;
+        final long duration = System.nanoTime() - start;
+
+        synchronized (historyLock) {
+            durations[durationIndex] = duration;
+            durationIndex = (durationIndex + 1) % HISTORY_TICKS;
+            durationCount = Math.min(durationCount + 1, HISTORY_TICKS);
+            buckets[getBucket(duration)]++;
+            totalTicks++;
+            totalNanos += duration;
+        }
+
+        if (thresholdNanos > 0 && duration > thresholdNanos) {
+            logSpike(duration, capture);
+        }
+    }
+
+    static synchronized void stop() {
+        if (watcher != null) {
+            watcher.interrupt();
+            watcher = null;
+        }
+        serverThread = null;
+    }
+
+    /**
+     * Gets the durations of the recent ticks, sorted from fastest to slowest.
+     *
+     * @return The sorted durations in nanoseconds
+     */
+    static long[] getSortedDurations() {
+        final long[] sorted;
+        synchronized (historyLock) {
+            sorted = Arrays.copyOf(durations, durationCount);
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    static long getPercentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    static long[] getBuckets() {
+        synchronized (historyLock) {
+            return buckets.clone();
+        }
+    }
+
+    static long getTotalTicks() {
+        synchronized (historyLock) {
+            return totalTicks;
+        }
+    }
+
+    static long getTotalNanos() {
+        synchronized (historyLock) {
+            return totalNanos;
+        }
+    }
+
+    private static int getBucket(long duration) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(duration);
+        for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+            if (millis < BUCKET_MILLIS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_MILLIS.length;
+    }
+
+    private static synchronized void startWatcher() {
+        final Thread thread = new Thread(TickSpikeRecorder::watch, "Sponge Tick Spike Watcher");
+        thread.setDaemon(true);
+        thread.start();
+        watcher = thread;
+    }
+
+    private static void watch() {
+        long capturedTick = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(WATCH_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            final long start = tickStart;
+            if (start != 0 && start != capturedTick && System.nanoTime() - start > thresholdNanos) {
+                capturedTick = start;
+                final Capture capture = capture();
+                // Only keep the capture if it still belongs to the running tick
+                if (tickStart == start) {
+                    TickSpikeRecorder.capture = capture;
+                }
+            }
+        }
+    }
+
+    private static Capture capture() {
+        final List<String> phases = new ArrayList<>();
+        try {
+            for (WorldServer world : WorldManager.getWorlds()) {
+                final List<String> worldPhases = ((IMixinWorldServer) world).getCauseTracker().describePhases();
+                if (!worldPhases.isEmpty()) {
+                    phases.add(world.getWorldInfo().getWorldName() + ": " + String.join(" > ", worldPhases));
+                }
+            }
+        } catch (RuntimeException e) {
+            // The worlds changed while reading them
+        }
+        final Thread thread = serverThread;
+        return new Capture(phases, thread == null ? new StackTraceElement[0] : thread.getStackTrace());
+    }
+
+    private static void logSpike(long duration, @Nullable Capture capture) {
+        final StringBuilder builder = new StringBuilder(1024)
+                .append(LocalDateTime.now()).append(" Tick took ").append(TimeUnit.NANOSECONDS.toMillis(duration)).append(" ms\n");
+        if (capture == null) {
+            builder.append("  No phases captured, the tick ended too soon after passing the threshold\n");
+        } else {
+            builder.append("  Phases:\n");
+            if (capture.phases.isEmpty()) {
+                builder.append("    None\n");
+            }
+            for (String phase : capture.phases) {
+                builder.append("    ").append(phase).append('\n');
+            }
+            builder.append("  Server thread:\n");
+            for (StackTraceElement element : capture.stackTrace) {
+                builder.append("    at ").append(element).append('\n');
+            }
+        }
+        if (Timings.isTimingsEnabled()) {
+            // The handlers weren't processed for this tick yet
+            final List<TimingHandler> handlers = new ArrayList<>(TimingsManager.HANDLERS);
+            handlers.removeIf(handler -> handler.record.curTickTotal <= 0);
+            handlers.sort(Comparator.comparingLong((TimingHandler handler) -> handler.record.curTickTotal).reversed());
+            builder.append("  Top handlers:\n");
+            for (TimingHandler handler : handlers.subList(0, Math.min(TOP_HANDLERS, handlers.size()))) {
+                builder.append("    ").append(TimeUnit.NANOSECONDS.toMillis(handler.record.curTickTotal)).append(" ms ")
+                        .append(handler.name).append(" (").append(handler.record.curTickCount).append("x)\n");
+            }
+        }
+
+        final String entry = builder.toString();
+        writer.execute(() -> {
+            final Path file = SpongeImpl.getGameDir().resolve("logs").resolve("tick-spikes.log");
+            try {
+                Files.createDirectories(file.getParent());
+                try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    out.write(entry);
+                }
+            } catch (IOException e) {
+                SpongeImpl.getLogger().error("Failed to write the tick spike log [{}]!", file, e);
+            }
+        });
+    }
+
+    private static final class Capture {
+
+        final List<String> phases;
+        final StackTraceElement[] stackTrace;
+
+        Capture(List<String> phases, StackTraceElement[] stackTrace) {
+            this.phases = phases;
+            this.stackTrace = stackTrace;
+        }
+    }
+}
@@ -49,7 +49,8 @@ public TimingData apply(Integer input) {
     private long lagTotalTime = 0;
 
     int curTickCount = 0;
-    int curTickTotal = 0;
+    // A long, a single tick can take longer than an int of nanoseconds
+    long curTickTotal = 0;
 
     TimingData(int id) {
         this.id = id;
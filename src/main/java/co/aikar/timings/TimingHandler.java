@@ -40,6 +40,10 @@ class TimingHandler implements Timing {
     final Int2ObjectMap<TimingData> children = new LoadingIntMap<>(TimingData.LOADER);
 
     final TimingData record;
+    // Totals since the handler was created, never reset so they can be
+    // exported as counters. Only written on the main thread.
+    volatile long totalCount;
+    volatile long totalTime;
     private final TimingHandler groupHandler;
 
     private long start = 0;
@@ -76,6 +80,8 @@ void processTick(boolean violated) {
             return;
         }
 
+        this.totalCount += this.record.curTickCount;
+        this.totalTime += this.record.curTickTotal;
         this.record.processTick(violated);
         for (TimingData handler : this.children.values()) {
             handler.processTick(violated);
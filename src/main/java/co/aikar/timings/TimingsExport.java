@@ -30,6 +30,7 @@
 import co.aikar.util.JSONUtil;
 import co.aikar.util.JSONUtil.JsonObjectBuilder;
 import com.google.common.base.Joiner;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Sets;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -44,11 +45,17 @@
 import org.spongepowered.api.command.source.RconSource;
 import org.spongepowered.api.entity.EntityType;
 import org.spongepowered.api.entity.EntityTypes;
+import org.spongepowered.api.service.sql.SqlService;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.action.TextActions;
 import org.spongepowered.api.text.format.TextColors;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.data.ImmutableDataCachingUtil;
 import org.spongepowered.common.entity.SpongeEntityType;
+import org.spongepowered.common.entity.player.UserSaveQueue;
+import org.spongepowered.common.network.PacketFlushCoalescer;
+import org.spongepowered.common.service.permission.base.PermissionValueCache;
+import org.spongepowered.common.service.sql.SqlServiceImpl;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -59,8 +66,14 @@
 import java.net.HttpURLConnection;
 import java.net.InetAddress;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.GZIPOutputStream;
 
 class TimingsExport extends Thread {
@@ -68,6 +81,7 @@ class TimingsExport extends Thread {
     private static final Joiner AUTHOR_LIST_JOINER = Joiner.on(", ");
     private static final Joiner RUNTIME_FLAG_JOINER = Joiner.on(" ");
     private static final Joiner CONFIG_PATH_JOINER = Joiner.on(".");
+    private static final DateTimeFormatter REPORT_FILE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss");
 
     private final CommandSource sender;
     private final JsonObject out;
@@ -85,7 +99,8 @@ private static String getServerName() {
     }
 
     /**
-     * Builds an XML report of the timings to be uploaded for parsing.
+     * Builds an XML report of the timings to be uploaded for parsing, or
+     * written to the timings directory if local export is enabled.
      *
      * @param sender Who to report to
      */
@@ -121,6 +136,36 @@ static void reportTimings(CommandSource sender) {
                     return JSONUtil.singleObjectPair(input.getName(), JSONUtil.arrayOf(input.getCollectionCount(), input.getCollectionTime()));
                 })));
 
+        // Hit, miss and size of the immutable data caches
+        final CacheStats manipulatorStats = ImmutableDataCachingUtil.getManipulatorCacheStats();
+        final CacheStats valueStats = ImmutableDataCachingUtil.getValueCacheStats();
+        builder.add("caches", JSONUtil.objectBuilder()
+                .add("immutable-manipulators", JSONUtil.arrayOf(manipulatorStats.hitCount(), manipulatorStats.missCount(),
+                        ImmutableDataCachingUtil.getManipulatorCacheSize()))
+                .add("immutable-values", JSONUtil.arrayOf(valueStats.hitCount(), valueStats.missCount(),
+                        ImmutableDataCachingUtil.getValueCacheSize())));
+
+        // Packets written and flushes performed, a flush is a system call
+        builder.add("network", JSONUtil.arrayOf(PacketFlushCoalescer.getWrittenPackets(), PacketFlushCoalescer.getFlushes()));
+        // Queue depth, completed saves and average write latency of offline users
+        builder.add("user-saves", JSONUtil.arrayOf(UserSaveQueue.getQueueDepth(), UserSaveQueue.getCompletedSaves(),
+                UserSaveQueue.getAverageWriteMillis()));
+        // Hits and misses of the resolved permission values
+        builder.add("permissions", JSONUtil.arrayOf(PermissionValueCache.getHits(), PermissionValueCache.getMisses()));
+        // Median, 99th percentile and maximum duration in milliseconds of the recent ticks
+        final long[] tickDurations = TickSpikeRecorder.getSortedDurations();
+        builder.add("ticks", JSONUtil.arrayOf(
+                TimeUnit.NANOSECONDS.toMillis(TickSpikeRecorder.getPercentile(tickDurations, 0.5)),
+                TimeUnit.NANOSECONDS.toMillis(TickSpikeRecorder.getPercentile(tickDurations, 0.99)),
+                TimeUnit.NANOSECONDS.toMillis(TickSpikeRecorder.getPercentile(tickDurations, 1))));
+        // Active, idle and awaited connections, acquisitions and average and maximum wait in microseconds of the sql pools
+        Sponge.getServiceManager().provide(SqlService.class)
+                .filter(SqlServiceImpl.class::isInstance)
+                .ifPresent(service -> builder.add("sql", JSONUtil.mapArrayToObject(((SqlServiceImpl) service).getPools(), (pool) -> {
+                    return JSONUtil.singleObjectPair(pool.getUrl(), JSONUtil.arrayOf(pool.getActiveConnections(), pool.getIdleConnections(),
+                            pool.getThreadsAwaitingConnection(), pool.getAcquisitions(), pool.getAverageWaitMicros(), pool.getMaxWaitMicros()));
+                })));
+
         Set<BlockType> blockTypeSet = Sets.newHashSet();
         Set<EntityType> entityTypeSet = Sets.newHashSet();
 
@@ -261,6 +306,11 @@ public void run() {
 
         this.out.add("data", JSONUtil.mapArray(this.history, TimingHistory::export));
 
+        if (SpongeImpl.getGlobalConfig().getConfig().getTimings().isLocalExport()) {
+            writeLocalReport();
+            return;
+        }
+
         String response = null;
         try {
             HttpURLConnection con = (HttpURLConnection) new URL("http://timings.aikar.co/post").openConnection();
@@ -309,6 +359,25 @@ public void run() {
         }
     }
 
+    private void writeLocalReport() {
+        final Path directory = SpongeImpl.getGameDir().resolve("timings");
+        final Path file = directory.resolve("timings-" + LocalDateTime.now().format(REPORT_FILE_FORMAT) + ".json.gz");
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                out.write(JSONUtil.toString(this.out).getBytes(StandardCharsets.UTF_8));
+            }
+
+            this.sender.sendMessage(Text.of(TextColors.GREEN, "Timings Report written to: ", file.toString()));
+            if (!(this.sender instanceof ConsoleSource)) {
+                SpongeImpl.getLogger().info("Timings Report written to: " + file);
+            }
+        } catch (IOException ex) {
+            this.sender.sendMessage(Text.of(TextColors.RED, "Error writing timings, check your logs for more information"));
+            SpongeImpl.getLogger().fatal("Could not write timings", ex);
+        }
+    }
+
     private String getResponse(HttpURLConnection con) throws IOException {
         InputStream is = null;
         try {
@@ -96,6 +96,8 @@ static void tick() {
     static void stopServer() {
         Timings.setTimingsEnabled(false);
         recheckEnabled();
+        TimingsMetricsServer.stop();
+        TickSpikeRecorder.stop();
     }
 
     static void recheckEnabled() {
@@ -0,0 +1,169 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package co.aikar.timings;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.spongepowered.common.SpongeImpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * Serves the counts and times of all timings handlers in the Prometheus text
+ * format, so they can be scraped continuously without uploading reports.
+ *
+ * <p>The counts and times are totals since the handlers were created, they
+ * aren't reset with the history frames, and are read without synchronizing
+ * with the main thread, so they may lag behind by a tick.</p>
+ */
+final class TimingsMetricsServer {
+
+    @Nullable private static HttpServer server;
+
+    private TimingsMetricsServer() {
+    }
+
+    static synchronized void start(String address, int port) {
+        stop();
+        try {
+            final HttpServer httpServer = HttpServer.create(new InetSocketAddress(address, port), 0);
+            httpServer.createContext("/metrics", TimingsMetricsServer::handle);
+            httpServer.start();
+            server = httpServer;
+            SpongeImpl.getLogger().info("Serving timings metrics on http://{}:{}/metrics", address, port);
+        } catch (IOException e) {
+            SpongeImpl.getLogger().error("Failed to start the timings metrics listener on {}:{}", address, port, e);
+        }
+    }
+
+    static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final byte[] body = export().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    static String export() {
+        final StringBuilder counts = new StringBuilder(4096)
+                .append("# HELP sponge_timings_count Number of times the handler was timed.\n")
+                .append("# TYPE sponge_timings_count counter\n");
+        final StringBuilder times = new StringBuilder(4096)
+                .append("# HELP sponge_timings_seconds Time spent in the handler.\n")
+                .append("# TYPE sponge_timings_seconds counter\n");
+        // The timing map can be modified from async so we must sync on it
+        synchronized (TimingsManager.TIMING_MAP) {
+            for (Map.Entry<TimingIdentifier, TimingHandler> entry : TimingsManager.TIMING_MAP.entrySet()) {
+                final TimingHandler handler = entry.getValue();
+                if (!handler.timed) {
+                    continue;
+                }
+                appendLabels(counts.append("sponge_timings_count"), entry.getKey().group, handler.name)
+                        .append(' ').append(handler.totalCount).append('\n');
+                appendLabels(times.append("sponge_timings_seconds"), entry.getKey().group, handler.name)
+                        .append(' ').append(toSeconds(handler.totalTime)).append('\n');
+            }
+        }
+        return new StringBuilder(counts.length() + times.length() + 1024)
+                .append("# HELP sponge_timings_enabled Whether timings are enabled.\n")
+                .append("# TYPE sponge_timings_enabled gauge\n")
+                .append("sponge_timings_enabled ").append(Timings.isTimingsEnabled() ? 1 : 0).append('\n')
+                .append(counts)
+                .append(times)
+                .append(exportTicks())
+                .toString();
+    }
+
+    private static StringBuilder exportTicks() {
+        final StringBuilder builder = new StringBuilder(1024)
+                .append("# HELP sponge_tick_duration_seconds Duration of the server ticks.\n")
+                .append("# TYPE sponge_tick_duration_seconds histogram\n");
+        final long[] buckets = TickSpikeRecorder.getBuckets();
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i];
+            final String bound = i < TickSpikeRecorder.BUCKET_MILLIS.length ? Double.toString(TickSpikeRecorder.BUCKET_MILLIS[i] / 1000D) : "+Inf";
+            builder.append("sponge_tick_duration_seconds_bucket{le=\"").append(bound).append("\"} ").append(cumulative).append('\n');
+        }
+        builder.append("sponge_tick_duration_seconds_sum ").append(toSeconds(TickSpikeRecorder.getTotalNanos())).append('\n')
+                .append("sponge_tick_duration_seconds_count ").append(TickSpikeRecorder.getTotalTicks()).append('\n');
+
+        final long[] durations = TickSpikeRecorder.getSortedDurations();
+        builder.append("# HELP sponge_recent_tick_seconds Duration of the recent server ticks.\n")
+                .append("# TYPE sponge_recent_tick_seconds gauge\n")
+                .append("sponge_recent_tick_seconds{quantile=\"0.5\"} ").append(toSeconds(TickSpikeRecorder.getPercentile(durations, 0.5))).append('\n')
+                .append("sponge_recent_tick_seconds{quantile=\"0.99\"} ").append(toSeconds(TickSpikeRecorder.getPercentile(durations, 0.99))).append('\n')
+                .append("sponge_recent_tick_seconds{quantile=\"1\"} ").append(toSeconds(TickSpikeRecorder.getPercentile(durations, 1))).append('\n');
+        return builder;
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static StringBuilder appendLabels(StringBuilder builder, String group, String name) {
+        builder.append("{group=\"");
+        appendEscaped(builder, group);
+        builder.append("\",handler=\"");
+        appendEscaped(builder, name);
+        return builder.append("\"}");
+    }
+
+    private static void appendEscaped(StringBuilder builder, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                builder.append('\\').append(c);
+            } else if (c == '\n') {
+                builder.append("\\n");
+            } else {
+                builder.append(c);
+            }
+        }
+    }
+}
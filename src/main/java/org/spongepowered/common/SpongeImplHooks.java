@@ -25,6 +25,7 @@
 package org.spongepowered.common;
 
 
+import com.google.common.collect.Multimap;
 import net.minecraft.block.Block;
 import net.minecraft.block.ITileEntityProvider;
 import net.minecraft.block.state.IBlockState;
@@ -115,6 +116,11 @@ public static void addItemStackToListForSpawning(Collection<ItemDropData> itemSt
         }
     }
 
+    public static <K> void addItemStackToListForSpawning(Multimap<K, ItemDropData> multimap, K key, @Nullable ItemDropData itemStack) {
+        // Separate from the collection hook, the collections of a multimap are new views every time they are looked up
+        addItemStackToListForSpawning(multimap.get(key), itemStack);
+    }
+
     /**
      * A simple method to check attacks for the forge event factory.
      *
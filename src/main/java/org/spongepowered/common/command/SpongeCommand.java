@@ -64,6 +64,7 @@
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.event.cause.NamedCause;
 import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.service.sql.SqlService;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.action.TextActions;
 import org.spongepowered.api.text.format.TextColors;
@@ -86,6 +87,8 @@
 import org.spongepowered.common.interfaces.world.IMixinDimensionType;
 import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
+import org.spongepowered.common.service.sql.SqlPool;
+import org.spongepowered.common.service.sql.SqlServiceImpl;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.world.WorldManager;
 
@@ -126,6 +129,7 @@ public static CommandSpec getCommand() {
         nonFlagChildren.register(getPluginsCommand(), "plugins");
         nonFlagChildren.register(getTimingsCommand(), "timings");
         nonFlagChildren.register(getWhichCommand(), "which");
+        nonFlagChildren.register(getSqlCommand(), "sql");
         flagChildren.register(getChunksCommand(), "chunks");
         flagChildren.register(getConfigCommand(), "config");
         flagChildren.register(getReloadCommand(), "reload"); // TODO: Should these two be subcommands of config, and what is now config be set?
@@ -143,6 +147,7 @@ INDENT, title("version"), LONG_INDENT, "Prints current Sponge version\n",
                         INDENT, title("audit"), LONG_INDENT, "Audit mixin classes for implementation\n",
                         INDENT, title("plugins"), LONG_INDENT, "List currently installed plugins\n",
                         INDENT, title("which"), LONG_INDENT, "List plugins that own a specific command\n",
+                        INDENT, title("sql"), LONG_INDENT, "List the open SQL connection pools\n",
                         INDENT, title("tps"), LONG_INDENT, "Provides TPS (ticks per second) data for loaded worlds"))
                 .arguments(firstParsing(nonFlagChildren, flags()
                         .flag("-global", "g")
@@ -624,6 +629,38 @@ private static CommandSpec getWhichCommand() {
                 .build();
     }
 
+    private static CommandSpec getSqlCommand() {
+        return CommandSpec.builder()
+                .description(Text.of("List the open SQL connection pools"))
+                .permission("sponge.command.sql")
+                .executor((src, args) -> {
+                    final SqlService service = Sponge.getServiceManager().provideUnchecked(SqlService.class);
+                    if (!(service instanceof SqlServiceImpl)) {
+                        throw new CommandException(Text.of("The SQL service is provided by another plugin"));
+                    }
+                    final SqlServiceImpl sqlService = (SqlServiceImpl) service;
+                    if (sqlService.getPools().isEmpty()) {
+                        src.sendMessage(Text.of("There are no open connection pools"));
+                        return CommandResult.success();
+                    }
+                    for (SqlPool pool : sqlService.getPools()) {
+                        final Text.Builder builder = Text.builder().append(Text.of(TextColors.GREEN, pool.getUrl()), NEWLINE_TEXT,
+                                Text.of(INDENT, "Active: ", TextColors.LIGHT_PURPLE, pool.getActiveConnections(), TextColors.RESET,
+                                        ", Idle: ", TextColors.LIGHT_PURPLE, pool.getIdleConnections(), TextColors.RESET,
+                                        ", Waiting: ", TextColors.LIGHT_PURPLE, pool.getThreadsAwaitingConnection(), TextColors.RESET,
+                                        ", Max: ", TextColors.LIGHT_PURPLE, pool.getMaximumPoolSize()), NEWLINE_TEXT,
+                                Text.of(INDENT, "Acquisitions: ", TextColors.LIGHT_PURPLE, pool.getAcquisitions(), TextColors.RESET,
+                                        ", Mean wait: ", TextColors.RED, pool.getAverageWaitMicros(), "us", TextColors.RESET,
+                                        ", Max wait: ", TextColors.RED, pool.getMaxWaitMicros(), "us"));
+                        sqlService.getLeasedConnections(pool).forEach((plugin, leased) ->
+                                builder.append(NEWLINE_TEXT, Text.of(INDENT, LIST_ITEM_TEXT, plugin, ": ", TextColors.LIGHT_PURPLE, leased)));
+                        src.sendMessage(builder.build());
+                    }
+                    return CommandResult.success();
+                })
+                .build();
+    }
+
     private static CommandSpec getTpsCommand() {
         return CommandSpec.builder()
                 .permission("sponge.command.tps")
@@ -76,6 +76,7 @@
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -278,14 +279,17 @@ public CommandResult process(CommandSource source, String commandLine) {
             try {
                 if (CauseTracker.ENABLED && SpongeImpl.getServer().isCallingFromMinecraftThread()) {
                     final String commandUsed = commandLine;
+                    // Most commands never touch a world, so the command phase is only entered in the worlds
+                    // that are accessed while the command is processed
+                    final Supplier<PhaseContext> context = () -> PhaseContext.start()
+                            .add(NamedCause.source(source))
+                            .add(NamedCause.of(InternalNamedCauses.General.COMMAND, commandUsed))
+                            .addCaptures()
+                            .addEntityDropCaptures()
+                            .complete();
                     Sponge.getServer().getWorlds().forEach(world -> {
                         final IMixinWorldServer mixinWorld = (IMixinWorldServer) world;
-                        mixinWorld.getCauseTracker().switchToPhase(GeneralPhase.State.COMMAND, PhaseContext.start()
-                                .add(NamedCause.source(source))
-                                .add(NamedCause.of(InternalNamedCauses.General.COMMAND, commandUsed))
-                                .addCaptures()
-                                .addEntityDropCaptures()
-                                .complete());
+                        mixinWorld.getCauseTracker().switchToPhaseLazily(GeneralPhase.State.COMMAND, context);
                     });
                 }
                 final CommandResult result = this.dispatcher.process(source, commandLine);
@@ -389,7 +393,7 @@ private void completeCommandPhase() {
             Sponge.getServer().getWorlds().forEach(world -> {
                 final IMixinWorldServer mixinWorld = (IMixinWorldServer) world;
                 try {
-                    mixinWorld.getCauseTracker().completePhase();
+                    mixinWorld.getCauseTracker().completeLazyPhase();
                 } catch (Exception e) {
                     e.printStackTrace();
                     // Basically, we don't do anything because the worlds that were created during the
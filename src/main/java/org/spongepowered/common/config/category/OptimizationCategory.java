@@ -56,6 +56,41 @@ public class OptimizationCategory extends ConfigCategory {
                                                                + "world heights and can thus be disabled in those cases.")
     private boolean inlineBlockPositionChecks = true;
 
+    @Setting(value = "direct-key-accessors", comment = "Generates direct accessors for reading simple Keys, such as health and display\n"
+                                                       + "names, from data holders instead of going through the processor chain.\n"
+                                                       + "Direct reads are not timed individually. Mods registering their own\n"
+                                                       + "processors for a key automatically fall back to the processor chain.")
+    private boolean directKeyAccessors = false;
+
+    @Setting(value = "encode-once-broadcasts", comment = "Encodes particle, sound, boss bar and join/quit message packets once\n"
+                                                         + "when sending them to multiple players instead of once per player.\n"
+                                                         + "Disable if a mod expects to see these packets as objects in the\n"
+                                                         + "connection pipeline.")
+    private boolean encodeOnceBroadcasts = true;
+
+    @Setting(value = "deferred-packet-flushes", comment = "Writes packets sent during the server tick without flushing the\n"
+                                                          + "connection, each connection is then flushed once at the end of\n"
+                                                          + "the tick. This greatly reduces the number of system calls with\n"
+                                                          + "many players, but may delay packets by up to one tick.\n"
+                                                          + "Keep alive and disconnect packets are always sent right away.")
+    private boolean deferredPacketFlushes = false;
+
+    @Setting(value = "player-data-index", comment = "Keeps the first joined and last played dates of all players in a\n"
+                                                    + "single compact index file instead of reading every player data file\n"
+                                                    + "in 'data/sponge' on startup. The index is created from the existing\n"
+                                                    + "files on the first start and written in the background afterwards.")
+    private boolean playerDataIndex = false;
+
+    @Setting(value = "coalesce-explosions", comment = "Merges primed TNT that explodes at the same position with the same strength within\n"
+                                                      + "a tick into a single explosion with a multiplied entity knockback. The amount of\n"
+                                                      + "merged explosions is available in the explosion cause as 'MergedExplosions'.")
+    private boolean coalesceExplosions = false;
+
+    @Setting(value = "spatial-item-merging", comment = "Merges item entities once per tick for the whole world, using a grid as wide as\n"
+                                                       + "the item merge radius, instead of every item searching the surrounding chunks\n"
+                                                       + "for other items to merge with.")
+    private boolean spatialItemMerging = false;
+
     public boolean useIgnoreUloadedChunkLightingPatch() {
         return this.ignoreUnloadedChunkLighting;
     }
@@ -76,4 +111,28 @@ public boolean useCacheTameableOwners() {
     public boolean isInlineBlockPositionChecks() {
         return this.inlineBlockPositionChecks;
     }
+
+    public boolean useDirectKeyAccessors() {
+        return this.directKeyAccessors;
+    }
+
+    public boolean useEncodeOnceBroadcasts() {
+        return this.encodeOnceBroadcasts;
+    }
+
+    public boolean useDeferredPacketFlushes() {
+        return this.deferredPacketFlushes;
+    }
+
+    public boolean usePlayerDataIndex() {
+        return this.playerDataIndex;
+    }
+
+    public boolean useExplosionCoalescing() {
+        return this.coalesceExplosions;
+    }
+
+    public boolean useSpatialItemMerging() {
+        return this.spatialItemMerging;
+    }
 }
\ No newline at end of file
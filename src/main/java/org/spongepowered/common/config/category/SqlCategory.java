@@ -36,7 +36,47 @@ public class SqlCategory extends ConfigCategory {
     @Setting(comment = "Aliases for SQL connections, in the format jdbc:protocol://[username[:password]@]host/database")
     private Map<String, String> aliases = new HashMap<>();
 
+    @Setting(value = "max-pool-size", comment = "The maximum amount of connections in a connection pool, or 0 to size the pools by the\n"
+            + "amount of available processors.")
+    private int maxPoolSize = 0;
+
+    @Setting(value = "pool-sizes", comment = "The maximum amount of connections in the connection pools of specific aliases, overriding\n"
+            + "'max-pool-size'.")
+    private Map<String, Integer> poolSizes = new HashMap<>();
+
+    @Setting(value = "plugin-connection-quota", comment = "The maximum amount of connections a single plugin may hold at once from a connection\n"
+            + "pool shared with other plugins, or 0 to let a plugin use the whole pool.")
+    private int pluginConnectionQuota = 0;
+
+    @Setting(value = "pool-idle-timeout", comment = "The time in seconds after which a connection pool that is not used is closed,\n"
+            + "or 0 to keep the pools open until the server stops.")
+    private int poolIdleTimeout = 600;
+
+    @Setting(value = "batch-window", comment = "The time in milliseconds during which the updates queued on the asynchronous SQL executor\n"
+            + "are collected into a single batch.")
+    private int batchWindow = 20;
+
     public Map<String, String> getAliases() {
         return this.aliases;
     }
-}
\ No newline at end of file
+
+    public int getMaxPoolSize() {
+        return this.maxPoolSize;
+    }
+
+    public Map<String, Integer> getPoolSizes() {
+        return this.poolSizes;
+    }
+
+    public int getPluginConnectionQuota() {
+        return this.pluginConnectionQuota;
+    }
+
+    public int getPoolIdleTimeout() {
+        return this.poolIdleTimeout;
+    }
+
+    public int getBatchWindow() {
+        return this.batchWindow;
+    }
+}
@@ -51,6 +51,25 @@ public class TimingsCategory extends ConfigCategory {
     @Setting("history-length")
     private int historyLength = 3600;
 
+    @Setting(value = "tick-spike-threshold", comment = "Ticks taking longer than this many milliseconds are written to\n"
+                                                       + "'logs/tick-spikes.log' with the phases being processed in each world\n"
+                                                       + "and, if timings are enabled, the handlers that took the longest.\n"
+                                                       + "Tick durations are recorded regardless of timings being enabled.\n"
+                                                       + "Set to 0 to disable the spike log.")
+    private int tickSpikeThreshold = 500;
+
+    @Setting(value = "local-export", comment = "If enabled, timings reports are written to the 'timings' directory as\n"
+                                               + "compressed JSON instead of being uploaded to the timings viewer.")
+    private boolean localExport = false;
+
+    @Setting(value = "metrics-port", comment = "The port of a local HTTP listener serving the counts and times of all\n"
+                                               + "timings handlers in the Prometheus text format at /metrics.\n"
+                                               + "Set to 0 to disable the listener.")
+    private int metricsPort = 0;
+
+    @Setting(value = "metrics-address", comment = "The address the metrics listener binds to.")
+    private String metricsAddress = "127.0.0.1";
+
     public boolean isVerbose() {
         return this.verbose;
     }
@@ -83,4 +102,24 @@ public void setHistoryLength(int historyLength) {
         this.historyLength = historyLength;
     }
 
+    public int getTickSpikeThreshold() {
+        return this.tickSpikeThreshold;
+    }
+
+    public boolean isLocalExport() {
+        return this.localExport;
+    }
+
+    public void setLocalExport(boolean localExport) {
+        this.localExport = localExport;
+    }
+
+    public int getMetricsPort() {
+        return this.metricsPort;
+    }
+
+    public String getMetricsAddress() {
+        return this.metricsAddress;
+    }
+
 }
\ No newline at end of file
@@ -24,21 +24,28 @@
  */
 package org.spongepowered.common.data;
 
-import static org.spongepowered.common.util.ReflectionUtil.createUnsafeInstance;
-
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import org.spongepowered.api.CatalogType;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.MapMaker;
 import org.spongepowered.api.data.key.Key;
 import org.spongepowered.api.data.manipulator.ImmutableDataManipulator;
 import org.spongepowered.api.data.value.BaseValue;
 import org.spongepowered.api.data.value.immutable.ImmutableValue;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.util.ReflectionUtil;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
 
 public final class ImmutableDataCachingUtil {
 
@@ -48,14 +55,25 @@ private ImmutableDataCachingUtil() {}
     public static final int MANIPULATOR_CACHE_LIMIT = 100000;
     public static final int VALUE_CACHE_LIMIT = 100000;
 
-    private static final Cache<String, ImmutableDataManipulator<?, ?>> manipulatorCache = CacheBuilder.newBuilder()
+    private static final Cache<CacheKey, ImmutableDataManipulator<?, ?>> manipulatorCache = CacheBuilder.newBuilder()
         .maximumSize(MANIPULATOR_CACHE_LIMIT)
         .concurrencyLevel(4)
+        .recordStats()
         .build();
 
-    private static final Cache<String, ImmutableValue<?>> valueCache = CacheBuilder.newBuilder()
+    private static final Cache<CacheKey, ImmutableValue<?>> valueCache = CacheBuilder.newBuilder()
         .concurrencyLevel(4)
         .maximumSize(VALUE_CACHE_LIMIT)
+        .recordStats()
+        .build();
+
+    // Boolean and enum values have a small, fixed domain, they are kept forever so the same instance is always returned
+    private static final Map<CacheKey, ImmutableValue<?>> flyweightValues = new MapMaker().concurrencyLevel(4).makeMap();
+    private static final AtomicLong flyweightHits = new AtomicLong();
+    private static final AtomicLong flyweightMisses = new AtomicLong();
+
+    private static final Cache<ConstructorKey, ResolvedConstructor> constructorCache = CacheBuilder.newBuilder()
+        .concurrencyLevel(4)
         .build();
 
     /**
@@ -75,14 +93,14 @@ private ImmutableDataCachingUtil() {}
      */
     @SuppressWarnings("unchecked")
     public static <T extends ImmutableDataManipulator<?, ?>> T getManipulator(final Class<T> immutableClass, final Object... args) {
-        final String key = getKey(immutableClass, args);
+        final CacheKey key = new CacheKey(immutableClass, null, args);
         // We can't really use the generic typing here because it's complicated...
         try {
             // Let's get the key
             return (T) ImmutableDataCachingUtil.manipulatorCache.get(key, (Callable<ImmutableDataManipulator<?, ?>>) () -> {
                     try {
-                        return createUnsafeInstance(immutableClass, args);
-                    } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                        return (ImmutableDataManipulator<?, ?>) construct(immutableClass, args);
+                    } catch (Throwable e) {
                         SpongeImpl.getLogger().error("Could not construct an ImmutableDataManipulator: " + immutableClass.getCanonicalName() + " with the args: "
                                                      + Arrays.toString(args), e);
                     }
@@ -97,34 +115,195 @@ private ImmutableDataCachingUtil() {}
     @SuppressWarnings("unchecked")
     public static <E, V extends ImmutableValue<?>, T extends ImmutableValue<E>> T getValue(final Class<V> valueClass,
             final Key<? extends BaseValue<E>> usedKey, final E defaultArg, final E arg, final Object... extraArgs) {
-        final String key = getKey(valueClass, usedKey.getQuery().asString('.'), arg.getClass(), arg);
+        final CacheKey key = new CacheKey(valueClass, usedKey, new Object[] {arg});
+        final Callable<ImmutableValue<?>> loader = () -> {
+            try {
+                if (extraArgs == null || extraArgs.length == 0) {
+                    return (ImmutableValue<?>) construct(valueClass, usedKey, defaultArg, arg);
+                } else {
+                    return (ImmutableValue<?>) construct(valueClass, usedKey, defaultArg, arg, extraArgs);
+                }
+            } catch (Throwable e) {
+                SpongeImpl.getLogger().error("Could not construct an ImmutableValue: " + valueClass.getCanonicalName(), e);
+            }
+            throw new UnsupportedOperationException("Could not construct the ImmutableValue: " + valueClass.getName());
+        };
+        if (arg instanceof Boolean || arg instanceof Enum) {
+            ImmutableValue<?> value = ImmutableDataCachingUtil.flyweightValues.get(key);
+            if (value != null) {
+                ImmutableDataCachingUtil.flyweightHits.incrementAndGet();
+                return (T) value;
+            }
+            ImmutableDataCachingUtil.flyweightMisses.incrementAndGet();
+            try {
+                value = loader.call();
+            } catch (Exception e) {
+                throw new UnsupportedOperationException("Could not construct the ImmutableValue: " + valueClass.getName(), e);
+            }
+            final ImmutableValue<?> existing = ImmutableDataCachingUtil.flyweightValues.putIfAbsent(key, value);
+            return (T) (existing == null ? value : existing);
+        }
         try {
-            return (T) ImmutableDataCachingUtil.valueCache.get(key, (Callable<ImmutableValue<?>>) () -> {
-                    try {
-                        if (extraArgs == null || extraArgs.length == 0) {
-                            return createUnsafeInstance(valueClass, usedKey, defaultArg, arg);
-                        } else {
-                            return createUnsafeInstance(valueClass, usedKey, defaultArg, arg, extraArgs);
-                        }
-                    } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                        SpongeImpl.getLogger().error("Could not construct an ImmutableValue: " + valueClass.getCanonicalName(), e);
-                    }
-                    throw new UnsupportedOperationException("Could not construct the ImmutableValue: " + valueClass.getName());
-            });
+            return (T) ImmutableDataCachingUtil.valueCache.get(key, loader);
         } catch (ExecutionException e) {
             throw new UnsupportedOperationException("Could not construct the ImmutableValue: " + valueClass.getName(), e);
         }
     }
 
-    private static String getKey(final Class<?> immutableClass, final Object... args) {
-        final StringBuilder builder = new StringBuilder(immutableClass.getCanonicalName() + ":");
-        for (Object object : args) {
-            if (object instanceof CatalogType) {
-                builder.append("{").append(((CatalogType) object).getId()).append("}");
-            } else {
-                builder.append("{").append(object.toString()).append("}");
+    public static CacheStats getManipulatorCacheStats() {
+        return ImmutableDataCachingUtil.manipulatorCache.stats();
+    }
+
+    public static CacheStats getValueCacheStats() {
+        final CacheStats flyweights = new CacheStats(ImmutableDataCachingUtil.flyweightHits.get(), ImmutableDataCachingUtil.flyweightMisses.get(),
+                0, 0, 0, 0);
+        return ImmutableDataCachingUtil.valueCache.stats().plus(flyweights);
+    }
+
+    public static long getManipulatorCacheSize() {
+        return ImmutableDataCachingUtil.manipulatorCache.size();
+    }
+
+    public static long getValueCacheSize() {
+        return ImmutableDataCachingUtil.valueCache.size() + ImmutableDataCachingUtil.flyweightValues.size();
+    }
+
+    private static Object construct(final Class<?> type, Object... args) throws Throwable {
+        if (args == null) {
+            args = new Object[] {null};
+        }
+        final Object[] constructorArgs = args;
+        final Object[] flattened = containsArray(args) ? ReflectionUtil.deconstructArray(args).toArray() : args;
+        final ResolvedConstructor constructor = ImmutableDataCachingUtil.constructorCache.get(new ConstructorKey(type, args, flattened),
+                () -> ResolvedConstructor.resolve(type, constructorArgs, flattened));
+        return constructor.handle.invokeExact(constructor.flatten ? flattened : args);
+    }
+
+    private static boolean containsArray(Object[] args) {
+        for (Object arg : args) {
+            if (arg != null && arg.getClass().isArray()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A composite cache key of a type, an optional {@link Key} and the
+     * arguments used to construct the cached object. The type and key are
+     * compared by identity, the arguments by equality.
+     */
+    static final class CacheKey {
+
+        private final Class<?> type;
+        @Nullable private final Key<?> key;
+        private final Object[] args;
+        private final int hashCode;
+
+        CacheKey(Class<?> type, @Nullable Key<?> key, Object... args) {
+            this.type = type;
+            this.key = key;
+            this.args = args;
+            this.hashCode = 31 * (31 * System.identityHashCode(type) + System.identityHashCode(key)) + Arrays.deepHashCode(args);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey other = (CacheKey) obj;
+            return this.hashCode == other.hashCode
+                    && this.type == other.type
+                    && this.key == other.key
+                    && Arrays.deepEquals(this.args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+    /**
+     * The argument types a constructor was resolved for. Arrays within the
+     * arguments may be flattened to match a constructor, so the flattened
+     * argument types are part of the key as well.
+     */
+    static final class ConstructorKey {
+
+        private final Class<?> type;
+        private final Class<?>[] argTypes;
+        private final Class<?>[] flattenedTypes;
+        private final int hashCode;
+
+        ConstructorKey(Class<?> type, Object[] args, Object[] flattened) {
+            this.type = type;
+            this.argTypes = typesOf(args);
+            this.flattenedTypes = flattened == args ? this.argTypes : typesOf(flattened);
+            this.hashCode = 31 * (31 * type.hashCode() + Arrays.hashCode(this.argTypes)) + Arrays.hashCode(this.flattenedTypes);
+        }
+
+        private static Class<?>[] typesOf(Object[] args) {
+            final Class<?>[] types = new Class<?>[args.length];
+            for (int i = 0; i < args.length; i++) {
+                types[i] = args[i] == null ? null : args[i].getClass();
+            }
+            return types;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ConstructorKey)) {
+                return false;
+            }
+            final ConstructorKey other = (ConstructorKey) obj;
+            return this.type == other.type
+                    && Arrays.equals(this.argTypes, other.argTypes)
+                    && Arrays.equals(this.flattenedTypes, other.flattenedTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+    static final class ResolvedConstructor {
+
+        private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+        final MethodHandle handle;
+        final boolean flatten;
+
+        private ResolvedConstructor(MethodHandle handle, boolean flatten) {
+            this.handle = handle;
+            this.flatten = flatten;
+        }
+
+        static ResolvedConstructor resolve(Class<?> type, Object[] args, Object[] flattened) throws IllegalAccessException {
+            // Try the arguments as given first, then the flattened arguments, and remember which of them matched
+            Constructor<?> constructor = ReflectionUtil.findExactConstructor(type, args);
+            boolean flatten = false;
+            if (constructor == null && flattened != args) {
+                constructor = ReflectionUtil.findExactConstructor(type, flattened);
+                flatten = true;
             }
+            if (constructor == null) {
+                throw new IllegalArgumentException("Applicable constructor not found for class: " + type.getCanonicalName() + " with args: "
+                        + Arrays.toString(args));
+            }
+            final MethodHandle handle = MethodHandles.publicLookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(SPREAD_TYPE);
+            return new ResolvedConstructor(handle, flatten);
         }
-        return builder.toString();
     }
+
 }
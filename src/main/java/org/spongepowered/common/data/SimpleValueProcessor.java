@@ -0,0 +1,67 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data;
+
+import org.spongepowered.api.data.value.BaseValue;
+import org.spongepowered.api.data.value.ValueContainer;
+import org.spongepowered.common.data.gen.KeyAccessorFactory;
+
+import java.util.Optional;
+
+/**
+ * A {@link ValueProcessor} that declares its support for a
+ * {@link ValueContainer} is decided purely by the class of the container.
+ * Any instance of {@link #getContainerClass()} is supported, and reading the
+ * value is a direct lookup that does not require the processor to be
+ * consulted through the delegate chain.
+ *
+ * <p>Processors implementing this are eligible for generated direct
+ * accessors, see {@link KeyAccessorFactory}.</p>
+ *
+ * @param <C> The type of container
+ * @param <E> The type of element within the value
+ * @param <V> The type of Value
+ */
+public interface SimpleValueProcessor<C, E, V extends BaseValue<E>> extends ValueProcessor<E, V> {
+
+    /**
+     * Gets the class of container this processor supports. Every instance of
+     * this class must be supported by {@link #supports(ValueContainer)}.
+     *
+     * @return The container class
+     */
+    Class<C> getContainerClass();
+
+    /**
+     * Gets the value directly from the container, without checking for
+     * support. The container is guaranteed to be an instance of
+     * {@link #getContainerClass()}.
+     *
+     * @param container The container
+     * @return The value, if available
+     */
+    Optional<E> getValueDirect(C container);
+
+}
@@ -54,6 +54,8 @@
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.config.DataSerializableTypeSerializer;
 import org.spongepowered.common.data.builder.manipulator.SpongeDataManipulatorBuilder;
+import org.spongepowered.common.data.gen.KeyAccessor;
+import org.spongepowered.common.data.gen.KeyAccessorFactory;
 import org.spongepowered.common.data.builder.manipulator.SpongeImmutableDataManipulatorBuilder;
 import org.spongepowered.common.data.nbt.data.NbtDataProcessor;
 import org.spongepowered.common.data.nbt.NbtDataType;
@@ -65,6 +67,7 @@
 import org.spongepowered.common.data.persistence.DataTranslatorTypeSerializer;
 import org.spongepowered.common.data.processor.common.AbstractSingleDataSingleTargetProcessor;
 import org.spongepowered.common.data.util.ComparatorUtil;
+import org.spongepowered.common.data.util.DataHolderKeyIndex;
 import org.spongepowered.common.data.util.DataFunction;
 import org.spongepowered.common.data.util.DataProcessorDelegate;
 import org.spongepowered.common.data.util.ValueProcessorDelegate;
@@ -79,6 +82,9 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
 
 public final class SpongeDataManager implements DataManager {
     static {
@@ -125,6 +131,8 @@ public final class SpongeDataManager implements DataManager {
     private final Map<Class<? extends DataManipulator<?, ?>>, Class<? extends DataManipulator<?, ?>>> interfaceToImplDataManipulatorClasses = new IdentityHashMap<>();
     private ImmutableTable<Class<? extends DataManipulator<?, ?>>, NbtDataType, NbtDataProcessor<?, ?>> nbtProcessorTable = ImmutableTable.of();
     private ImmutableTable<Key<?>, NbtDataType, NbtValueProcessor<?, ?>> nbtValueTable = ImmutableTable.of();
+    @Nullable private KeyAccessorFactory keyAccessorFactory;
+    @Nullable private DataHolderKeyIndex keyIndex;
 
     // Content updaters
     private final Map<Class<? extends DataSerializable>, List<DataContentUpdater>> updatersMap = new IdentityHashMap<>();
@@ -253,6 +261,9 @@ public static void finalizeRegistration() {
             registry.valueDelegates.put(entry.getKey(), delegate);
         });
         registry.valueProcessorMap.clear();
+        if (SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useDirectKeyAccessors()) {
+            registry.keyAccessorFactory = new KeyAccessorFactory(registry.valueDelegates);
+        }
         registry.processorMap.entrySet().forEach(entry -> {
             ImmutableList.Builder<DataProcessor<?, ?>> dataListBuilder = ImmutableList.builder();
             Collections.sort(entry.getValue(), ComparatorUtil.DATA_PROCESSOR_COMPARATOR);
@@ -261,6 +272,10 @@ public static void finalizeRegistration() {
             registry.dataProcessorDelegates.put(entry.getKey(), delegate);
         });
         registry.processorMap.clear();
+        // The implementation classes share the delegates of their interfaces, only index each manipulator once
+        registry.keyIndex = new DataHolderKeyIndex(registry.valueDelegates.values(), registry.interfaceToImplDataManipulatorClasses.keySet().stream()
+                .map(registry.dataProcessorDelegates::get)
+                .collect(Collectors.toList()));
 
         SpongeDataManager serializationService = SpongeDataManager.getInstance();
         registry.dataProcessorDelegates.entrySet().forEach(entry -> {
@@ -512,6 +527,33 @@ public <E, V extends BaseValue<E>> Optional<ValueProcessor<E, V>> getValueProces
         return Optional.ofNullable((ValueProcessor<E, ? extends BaseValue<E>>) this.valueDelegates.get(key));
     }
 
+    /**
+     * Gets the generated {@link KeyAccessor} for reading the {@link Key} from
+     * the provided holder class, if direct key accessors are enabled and the
+     * key's processors allow it.
+     *
+     * @param holderClass The class of the data holder
+     * @param key The key
+     * @param <E> The type of element within the value
+     * @return The accessor, or null if the processor chain must be used
+     */
+    @Nullable
+    public <E> KeyAccessor<E> getKeyAccessor(Class<?> holderClass, Key<? extends BaseValue<E>> key) {
+        final KeyAccessorFactory factory = this.keyAccessorFactory;
+        return factory == null ? null : factory.getAccessor(holderClass, key);
+    }
+
+    /**
+     * Gets the {@link DataHolderKeyIndex} of the registered keys, available
+     * once registrations are finalized.
+     *
+     * @return The key index, or null if registrations are not complete
+     */
+    @Nullable
+    public DataHolderKeyIndex getKeyIndex() {
+        return this.keyIndex;
+    }
+
     public RawDataValidator getValidators(ValidationType validationType) {
 
         return new DelegateDataValidator(ImmutableList.of(), validationType);
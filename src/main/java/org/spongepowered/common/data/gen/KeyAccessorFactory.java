@@ -0,0 +1,224 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.gen;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_6;
+
+import com.google.common.collect.MapMaker;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.value.BaseValue;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.data.SimpleValueProcessor;
+import org.spongepowered.common.data.ValueProcessor;
+import org.spongepowered.common.data.util.ValueProcessorDelegate;
+import org.spongepowered.common.event.gen.DefineableClassLoader;
+
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+/**
+ * Generates {@link KeyAccessor}s per data holder class and {@link Key}. An
+ * accessor is only generated when every {@link ValueProcessor} registered
+ * for the key is a {@link SimpleValueProcessor}, in which case the
+ * processor used for a holder is fully determined by the holder's class
+ * and the {@link ValueProcessorDelegate} chain can be skipped.
+ */
+public final class KeyAccessorFactory {
+
+    private static final String TARGET_PACKAGE = "org.spongepowered.common.data.gen.";
+    private static final String ACCESSOR_NAME = Type.getInternalName(KeyAccessor.class);
+    private static final String SIMPLE_PROCESSOR_NAME = Type.getInternalName(SimpleValueProcessor.class);
+    private static final String GET_DESCRIPTOR = "(Ljava/lang/Object;)" + Type.getDescriptor(Optional.class);
+
+    // Returned for holders that no registered processor supports, the delegate would always be empty
+    private static final KeyAccessor<?> EMPTY_ACCESSOR = holder -> Optional.empty();
+    // Marks holder and key combinations that need the delegate chain
+    private static final KeyAccessor<?> UNRESOLVABLE = holder -> Optional.empty();
+
+    private final AtomicInteger id = new AtomicInteger();
+    private final DefineableClassLoader classLoader = new DefineableClassLoader(getClass().getClassLoader());
+    private final Map<Key<?>, ValueProcessorDelegate<?, ?>> delegates;
+    private final Map<Class<?>, Map<Key<?>, KeyAccessor<?>>> accessors = new MapMaker()
+            .concurrencyLevel(4)
+            .weakKeys()
+            .makeMap();
+
+    public KeyAccessorFactory(Map<? extends Key<?>, ? extends ValueProcessorDelegate<?, ?>> delegates) {
+        this.delegates = new MapMaker().concurrencyLevel(4).makeMap();
+        this.delegates.putAll(checkNotNull(delegates, "delegates"));
+    }
+
+    /**
+     * Gets the {@link KeyAccessor} for the provided holder class and key,
+     * generating it if necessary.
+     *
+     * @param holderClass The class of the data holder
+     * @param key The key
+     * @param <E> The type of element within the value
+     * @return The accessor, or null if the delegate chain must be used
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public <E> KeyAccessor<E> getAccessor(Class<?> holderClass, Key<? extends BaseValue<E>> key) {
+        Map<Key<?>, KeyAccessor<?>> keyAccessors = this.accessors.get(holderClass);
+        if (keyAccessors == null) {
+            keyAccessors = new MapMaker().concurrencyLevel(4).makeMap();
+            final Map<Key<?>, KeyAccessor<?>> existing = this.accessors.putIfAbsent(holderClass, keyAccessors);
+            if (existing != null) {
+                keyAccessors = existing;
+            }
+        }
+        KeyAccessor<?> accessor = keyAccessors.get(key);
+        if (accessor == null) {
+            accessor = resolve(holderClass, key);
+            final KeyAccessor<?> existing = keyAccessors.putIfAbsent(key, accessor);
+            if (existing != null) {
+                accessor = existing;
+            }
+        }
+        return accessor == UNRESOLVABLE ? null : (KeyAccessor<E>) accessor;
+    }
+
+    private KeyAccessor<?> resolve(Class<?> holderClass, Key<?> key) {
+        final ValueProcessorDelegate<?, ?> delegate = this.delegates.get(key);
+        if (delegate == null) {
+            return UNRESOLVABLE;
+        }
+        SimpleValueProcessor<?, ?, ?> match = null;
+        for (ValueProcessor<?, ?> processor : delegate.getProcessors()) {
+            if (!(processor instanceof SimpleValueProcessor)) {
+                // Support can't be determined by class alone
+                return UNRESOLVABLE;
+            }
+            if (((SimpleValueProcessor<?, ?, ?>) processor).getContainerClass().isAssignableFrom(holderClass)) {
+                if (match != null) {
+                    // The delegate falls through to the next processor on empty values, keep that behavior
+                    return UNRESOLVABLE;
+                }
+                match = (SimpleValueProcessor<?, ?, ?>) processor;
+            }
+        }
+        if (match == null) {
+            return EMPTY_ACCESSOR;
+        }
+        try {
+            return createAccessor(holderClass, match);
+        } catch (Exception e) {
+            SpongeImpl.getLogger().error("Failed to generate a KeyAccessor for {} on {}, falling back to the ValueProcessor chain.",
+                    key.getId(), holderClass.getName(), e);
+            return UNRESOLVABLE;
+        }
+    }
+
+    KeyAccessor<?> createAccessor(Class<?> holderClass, SimpleValueProcessor<?, ?, ?> processor) throws Exception {
+        final Class<?> processorClass = processor.getClass();
+        final boolean direct = isAccessible(processorClass);
+        final Class<?> fieldType = direct ? processorClass : SimpleValueProcessor.class;
+        final String name = TARGET_PACKAGE + "KeyAccessor_" + processorClass.getSimpleName() + '_' + holderClass.getSimpleName() + '_'
+                + this.id.incrementAndGet();
+        final Class<?> accessorClass = this.classLoader.defineClass(name, generateClass(name, fieldType, direct));
+        return (KeyAccessor<?>) accessorClass.getConstructor(fieldType).newInstance(processor);
+    }
+
+    private boolean isAccessible(Class<?> processorClass) {
+        if (!Modifier.isPublic(processorClass.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(processorClass.getName(), false, this.classLoader) == processorClass;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static byte[] generateClass(String name, Class<?> fieldType, boolean direct) {
+        name = name.replace('.', '/');
+        final String fieldName = Type.getInternalName(fieldType);
+        final String fieldDescriptor = Type.getDescriptor(fieldType);
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        MethodVisitor mv;
+        FieldVisitor fv;
+
+        cw.visit(V1_6, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, name, null, "java/lang/Object", new String[] { ACCESSOR_NAME });
+        {
+            fv = cw.visitField(ACC_PRIVATE + ACC_FINAL, "processor", fieldDescriptor, null, null);
+            fv.visitEnd();
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "<init>", '(' + fieldDescriptor + ")V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitFieldInsn(PUTFIELD, name, "processor", fieldDescriptor);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "get", GET_DESCRIPTOR, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, "processor", fieldDescriptor);
+            mv.visitVarInsn(ALOAD, 1);
+            if (direct) {
+                // A monomorphic call site per accessor class, which the JIT can inline
+                mv.visitMethodInsn(INVOKEVIRTUAL, fieldName, "getValueDirect", GET_DESCRIPTOR, false);
+            } else {
+                mv.visitMethodInsn(INVOKEINTERFACE, SIMPLE_PROCESSOR_NAME, "getValueDirect", GET_DESCRIPTOR, true);
+            }
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+}
@@ -33,6 +33,7 @@
 import org.spongepowered.api.data.value.immutable.ImmutableValue;
 import org.spongepowered.api.data.value.mutable.Value;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.data.SimpleValueProcessor;
 import org.spongepowered.common.data.ValueProcessor;
 
 import java.util.Optional;
@@ -73,6 +74,21 @@ public boolean supports(ValueContainer<?> container) {
     }
 
 
+    /**
+     * Gets the class of container this processor handles. Subclasses that
+     * implement {@link SimpleValueProcessor} must support every instance of
+     * this class.
+     *
+     * @return The container class
+     */
+    public final Class<C> getContainerClass() {
+        return this.containerClass;
+    }
+
+    public Optional<E> getValueDirect(C container) {
+        return getVal(container);
+    }
+
     @Override
     public final Key<? extends BaseValue<E>> getKey() {
         return this.key;
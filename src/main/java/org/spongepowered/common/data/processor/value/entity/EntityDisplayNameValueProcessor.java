@@ -32,6 +32,7 @@
 import org.spongepowered.api.data.value.mutable.Value;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.data.SimpleValueProcessor;
 import org.spongepowered.common.data.processor.common.AbstractSpongeValueProcessor;
 import org.spongepowered.common.data.value.immutable.ImmutableSpongeValue;
 import org.spongepowered.common.data.value.mutable.SpongeValue;
@@ -39,7 +40,8 @@
 
 import java.util.Optional;
 
-public class EntityDisplayNameValueProcessor extends AbstractSpongeValueProcessor<Entity, Text, Value<Text>> {
+public class EntityDisplayNameValueProcessor extends AbstractSpongeValueProcessor<Entity, Text, Value<Text>>
+        implements SimpleValueProcessor<Entity, Text, Value<Text>> {
 
     public EntityDisplayNameValueProcessor() {
         super(Entity.class, Keys.DISPLAY_NAME);
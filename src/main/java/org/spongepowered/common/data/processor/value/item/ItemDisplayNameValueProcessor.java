@@ -34,6 +34,7 @@
 import org.spongepowered.api.data.value.mutable.Value;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.data.SimpleValueProcessor;
 import org.spongepowered.common.data.processor.common.AbstractSpongeValueProcessor;
 import org.spongepowered.common.data.util.NbtDataUtil;
 import org.spongepowered.common.data.value.immutable.ImmutableSpongeValue;
@@ -42,7 +43,8 @@
 
 import java.util.Optional;
 
-public class ItemDisplayNameValueProcessor extends AbstractSpongeValueProcessor<ItemStack, Text, Value<Text>> {
+public class ItemDisplayNameValueProcessor extends AbstractSpongeValueProcessor<ItemStack, Text, Value<Text>>
+        implements SimpleValueProcessor<ItemStack, Text, Value<Text>> {
 
     public ItemDisplayNameValueProcessor() {
         super(ItemStack.class, Keys.DISPLAY_NAME);
@@ -33,6 +33,7 @@
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.serializer.TextSerializers;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.data.SimpleValueProcessor;
 import org.spongepowered.common.data.processor.common.AbstractSpongeValueProcessor;
 import org.spongepowered.common.data.util.DataConstants;
 import org.spongepowered.common.data.value.immutable.ImmutableSpongeValue;
@@ -42,7 +43,8 @@
 
 import java.util.Optional;
 
-public class TileEntityDisplayNameValueProcessor extends AbstractSpongeValueProcessor<IWorldNameable, Text, Value<Text>> {
+public class TileEntityDisplayNameValueProcessor extends AbstractSpongeValueProcessor<IWorldNameable, Text, Value<Text>>
+        implements SimpleValueProcessor<IWorldNameable, Text, Value<Text>> {
 
     public TileEntityDisplayNameValueProcessor() {
         super(IWorldNameable.class, Keys.DISPLAY_NAME);
@@ -0,0 +1,288 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
+import org.spongepowered.api.data.DataHolder;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.manipulator.DataManipulator;
+import org.spongepowered.api.data.value.BaseValue;
+import org.spongepowered.api.data.value.ValueContainer;
+import org.spongepowered.api.data.value.immutable.ImmutableValue;
+import org.spongepowered.api.data.value.mutable.Value;
+import org.spongepowered.common.data.DataProcessor;
+import org.spongepowered.common.data.SimpleValueProcessor;
+import org.spongepowered.common.data.ValueProcessor;
+import org.spongepowered.common.interfaces.data.IMixinCustomDataHolder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.annotation.Nullable;
+
+/**
+ * An index of the {@link Key}s applicable to each class of data holder,
+ * used to list keys and values without constructing every
+ * {@link DataManipulator} a holder supports.
+ *
+ * <p>The registered keys and whether their support depends only on the
+ * holder's class are computed once when the {@link ValueProcessorDelegate}s
+ * are finalized. Only keys whose processors are all
+ * {@link SimpleValueProcessor}s are resolved by the holder class, the first
+ * time that class is queried, keys with any other processor are checked on
+ * every query. A key is only listed when the holder currently has a value for
+ * it, the same as for the keys of the manipulators the holder would
+ * provide.</p>
+ *
+ * <p>Keys that are only provided through a {@link DataProcessor}, without a
+ * value processor, are still read from the manipulator. A manipulator is
+ * built from the holder until its first instance shows whether it has any
+ * such keys, manipulators whose keys all have value processors are then no
+ * longer built.</p>
+ */
+public final class DataHolderKeyIndex {
+
+    private final ImmutableList<IndexedKey> keys;
+    private final ImmutableSet<Key<?>> valueKeys;
+    private final List<ManipulatorEntry> manipulatorEntries = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, HolderEntry> entries = new MapMaker()
+            .concurrencyLevel(4)
+            .weakKeys()
+            .makeMap();
+
+    public DataHolderKeyIndex(Collection<? extends ValueProcessorDelegate<?, ?>> valueDelegates,
+            Collection<? extends DataProcessor<?, ?>> dataProcessors) {
+        final ImmutableList.Builder<IndexedKey> builder = ImmutableList.builder();
+        final ImmutableSet.Builder<Key<?>> keyBuilder = ImmutableSet.builder();
+        for (ValueProcessorDelegate<?, ?> delegate : valueDelegates) {
+            builder.add(new IndexedKey(delegate));
+            keyBuilder.add(delegate.getKey());
+        }
+        this.keys = builder.build();
+        this.valueKeys = keyBuilder.build();
+        for (DataProcessor<?, ?> processor : dataProcessors) {
+            this.manipulatorEntries.add(new ManipulatorEntry(processor));
+        }
+    }
+
+    public Set<Key<?>> getKeys(ValueContainer<?> holder) {
+        final HolderEntry entry = getEntry(holder.getClass());
+        final ImmutableSet.Builder<Key<?>> builder = ImmutableSet.builder();
+        // Only the supported keys are cached, a key is only listed if the holder currently has a value for it
+        for (IndexedKey key : entry.staticKeyEntries) {
+            if (key.delegate.getValueFromContainer(holder).isPresent()) {
+                builder.add(key.key);
+            }
+        }
+        for (IndexedKey key : entry.dynamicKeys) {
+            if (key.delegate.supports(holder) && key.delegate.getValueFromContainer(holder).isPresent()) {
+                builder.add(key.key);
+            }
+        }
+        if (holder instanceof DataHolder) {
+            for (ManipulatorEntry manipulatorEntry : this.manipulatorEntries) {
+                if (getManipulator(manipulatorEntry, (DataHolder) holder) != null) {
+                    builder.addAll(manipulatorEntry.processorOnlyKeys);
+                }
+            }
+        }
+        if (holder instanceof IMixinCustomDataHolder && ((IMixinCustomDataHolder) holder).hasManipulators()) {
+            for (DataManipulator<?, ?> manipulator : ((IMixinCustomDataHolder) holder).getCustomManipulators()) {
+                builder.addAll(manipulator.getKeys());
+            }
+        }
+        return builder.build();
+    }
+
+    public Set<ImmutableValue<?>> getValues(ValueContainer<?> holder) {
+        final HolderEntry entry = getEntry(holder.getClass());
+        final ImmutableSet.Builder<ImmutableValue<?>> builder = ImmutableSet.builder();
+        for (IndexedKey key : entry.staticKeyEntries) {
+            addValue(builder, key.delegate, holder);
+        }
+        for (IndexedKey key : entry.dynamicKeys) {
+            if (key.delegate.supports(holder)) {
+                addValue(builder, key.delegate, holder);
+            }
+        }
+        if (holder instanceof DataHolder) {
+            for (ManipulatorEntry manipulatorEntry : this.manipulatorEntries) {
+                final DataManipulator<?, ?> manipulator = getManipulator(manipulatorEntry, (DataHolder) holder);
+                if (manipulator != null) {
+                    for (ImmutableValue<?> value : manipulator.getValues()) {
+                        if (manipulatorEntry.processorOnlyKeys.contains(value.getKey())) {
+                            builder.add(value);
+                        }
+                    }
+                }
+            }
+        }
+        if (holder instanceof IMixinCustomDataHolder && ((IMixinCustomDataHolder) holder).hasManipulators()) {
+            for (DataManipulator<?, ?> manipulator : ((IMixinCustomDataHolder) holder).getCustomManipulators()) {
+                builder.addAll(manipulator.getValues());
+            }
+        }
+        return builder.build();
+    }
+
+    private static void addValue(ImmutableSet.Builder<ImmutableValue<?>> builder, ValueProcessor<?, ?> processor, ValueContainer<?> holder) {
+        final Optional<? extends BaseValue<?>> value = processor.getApiValueFromContainer(holder);
+        if (value.isPresent()) {
+            final BaseValue<?> baseValue = value.get();
+            if (baseValue instanceof ImmutableValue) {
+                builder.add((ImmutableValue<?>) baseValue);
+            } else if (baseValue instanceof Value) {
+                builder.add(((Value<?>) baseValue).asImmutable());
+            }
+        }
+    }
+
+    private HolderEntry getEntry(Class<?> holderClass) {
+        return this.entries.computeIfAbsent(holderClass, key -> new HolderEntry(key, this.keys));
+    }
+
+    /**
+     * Gets the manipulator of the entry from the holder, if any of its keys
+     * are not provided by a value processor.
+     *
+     * @param entry The manipulator entry
+     * @param holder The data holder
+     * @return The manipulator, or null if it is not needed or not available
+     */
+    @Nullable
+    private DataManipulator<?, ?> getManipulator(ManipulatorEntry entry, DataHolder holder) {
+        if (entry.processorOnlyKeys != null && entry.processorOnlyKeys.isEmpty()) {
+            return null;
+        }
+        if (!entry.processor.supports(holder)) {
+            return null;
+        }
+        final Optional<? extends DataManipulator<?, ?>> manipulator = entry.processor.from(holder);
+        if (!manipulator.isPresent()) {
+            return null;
+        }
+        if (entry.processorOnlyKeys == null) {
+            final ImmutableSet.Builder<Key<?>> builder = ImmutableSet.builder();
+            for (Key<?> key : manipulator.get().getKeys()) {
+                if (!this.valueKeys.contains(key)) {
+                    builder.add(key);
+                }
+            }
+            entry.processorOnlyKeys = builder.build();
+            if (entry.processorOnlyKeys.isEmpty()) {
+                // Every key has a value processor, the manipulator never has to be built again
+                this.manipulatorEntries.remove(entry);
+                return null;
+            }
+        }
+        return manipulator.get();
+    }
+
+    /**
+     * Gets the class of containers the processor supports, if the processor
+     * declares its support is decided by the class of the container alone.
+     *
+     * @param processor The processor
+     * @return The supported container class, or null if unknown
+     */
+    @Nullable
+    static Class<?> getSupportedClass(ValueProcessor<?, ?> processor) {
+        if (processor instanceof SimpleValueProcessor) {
+            return ((SimpleValueProcessor<?, ?, ?>) processor).getContainerClass();
+        }
+        return null;
+    }
+
+    static final class IndexedKey {
+
+        final Key<?> key;
+        final ValueProcessorDelegate<?, ?> delegate;
+        // The container classes supported by the key, or null if a processor needs the container itself
+        @Nullable final ImmutableList<Class<?>> supportedClasses;
+
+        IndexedKey(ValueProcessorDelegate<?, ?> delegate) {
+            this.key = delegate.getKey();
+            this.delegate = delegate;
+            final ImmutableList.Builder<Class<?>> builder = ImmutableList.builder();
+            boolean classDetermined = true;
+            for (ValueProcessor<?, ?> processor : delegate.getProcessors()) {
+                final Class<?> supportedClass = getSupportedClass(processor);
+                if (supportedClass == null) {
+                    classDetermined = false;
+                    break;
+                }
+                builder.add(supportedClass);
+            }
+            this.supportedClasses = classDetermined ? builder.build() : null;
+        }
+
+        boolean isSupportedBy(Class<?> holderClass) {
+            for (Class<?> supportedClass : this.supportedClasses) {
+                if (supportedClass.isAssignableFrom(holderClass)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static final class ManipulatorEntry {
+
+        final DataProcessor<?, ?> processor;
+        // The keys of the manipulator without a value processor, or null until a manipulator was built
+        @Nullable volatile ImmutableSet<Key<?>> processorOnlyKeys;
+
+        ManipulatorEntry(DataProcessor<?, ?> processor) {
+            this.processor = processor;
+        }
+    }
+
+    static final class HolderEntry {
+
+        final ImmutableSet<IndexedKey> staticKeyEntries;
+        final ImmutableList<IndexedKey> dynamicKeys;
+
+        HolderEntry(Class<?> holderClass, ImmutableList<IndexedKey> keys) {
+            final ImmutableSet.Builder<IndexedKey> staticBuilder = ImmutableSet.builder();
+            final ImmutableList.Builder<IndexedKey> dynamicBuilder = ImmutableList.builder();
+            for (IndexedKey key : keys) {
+                if (key.supportedClasses == null) {
+                    dynamicBuilder.add(key);
+                } else if (key.isSupportedBy(holderClass)) {
+                    staticBuilder.add(key);
+                }
+            }
+            this.staticKeyEntries = staticBuilder.build();
+            this.dynamicKeys = dynamicBuilder.build();
+        }
+    }
+
+}
@@ -62,6 +62,10 @@ public int getPriority() {
         return Integer.MAX_VALUE;
     }
 
+    public ImmutableList<ValueProcessor<E, V>> getProcessors() {
+        return this.processors;
+    }
+
     @Override
     public Optional<E> getValueFromContainer(ValueContainer<?> container) {
         for (ValueProcessor<E, V> processor : this.processors) {
@@ -35,11 +35,16 @@
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 public class SpongeParticleEffect implements ParticleEffect {
 
     private final SpongeParticleType type;
     private final Map<ParticleOption<?>, Object> options;
 
+    // The effect is immutable, so the packets only have to be resolved once
+    @Nullable volatile CachedParticlePacket cachedParticlePacket;
+
     public SpongeParticleEffect(SpongeParticleType type, Map<ParticleOption<?>, Object> options) {
         this.options = ImmutableMap.copyOf(options);
         this.type = type;
@@ -58,11 +58,11 @@
 import org.spongepowered.common.item.inventory.SpongeItemStackSnapshot;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 public final class SpongeParticleHelper {
 
@@ -145,6 +145,50 @@ private static int getDirectionData(Direction direction) {
      * @return The packets
      */
     public static List<Packet<?>> toPackets(SpongeParticleEffect effect, Vector3d position) {
+        final List<Packet<?>> packets = new ArrayList<>();
+        getCachedPacket(effect).process(position, packets);
+        return packets;
+    }
+
+    /**
+     * Adds the packets that are needed to spawn the particle effect at
+     * the position to the list.
+     *
+     * @param effect The particle effect
+     * @param position The position
+     * @param output The list to add the packets to
+     */
+    public static void addPackets(SpongeParticleEffect effect, Vector3d position, List<Packet<?>> output) {
+        getCachedPacket(effect).process(position, output);
+    }
+
+    /**
+     * Gets the list of packets that are needed to spawn the particle effect at
+     * all of the positions, the effect is only resolved once.
+     *
+     * @param effect The particle effect
+     * @param positions The positions
+     * @return The packets
+     */
+    public static List<Packet<?>> toPackets(SpongeParticleEffect effect, Iterable<Vector3d> positions) {
+        final CachedParticlePacket cachedPacket = getCachedPacket(effect);
+        final List<Packet<?>> packets = new ArrayList<>();
+        for (Vector3d position : positions) {
+            cachedPacket.process(position, packets);
+        }
+        return packets;
+    }
+
+    private static CachedParticlePacket getCachedPacket(SpongeParticleEffect effect) {
+        CachedParticlePacket cachedPacket = effect.cachedParticlePacket;
+        if (cachedPacket == null) {
+            // Resolving twice on a race does no harm, both results are equal
+            effect.cachedParticlePacket = cachedPacket = createCachedPacket(effect);
+        }
+        return cachedPacket;
+    }
+
+    private static CachedParticlePacket createCachedPacket(SpongeParticleEffect effect) {
         SpongeParticleType type = effect.getType();
 
         EnumParticleTypes internal = type.getInternalType();
@@ -153,62 +197,46 @@ public static List<Packet<?>> toPackets(SpongeParticleEffect effect, Vector3d po
             if (type == ParticleTypes.FIREWORKS) {
                 final List<FireworkEffect> effects = type.getDefaultOption(ParticleOptions.FIREWORK_EFFECTS).get();
                 if (effects.isEmpty()) {
-                    return Collections.emptyList();
+                    return EmptyCachedPacket.INSTANCE;
                 }
-                final SPacketSpawnObject packetSpawnObject = new SPacketSpawnObject();
-                packetSpawnObject.entityId = FIREWORK_ROCKET_ID;
-                packetSpawnObject.uniqueId = FIREWORK_ROCKET_UNIQUE_ID;
-                packetSpawnObject.x = position.getX();
-                packetSpawnObject.y = position.getY();
-                packetSpawnObject.z = position.getZ();
-                // The internal id that that is used to spawn a "EntityFireworkRocket" on the client,
-                // can be found at: EntityTrackerEntry#createSpawnPacket
-                // or: NetHandlerPlayClient#handleSpawnObject
-                packetSpawnObject.type = 76;
                 final net.minecraft.item.ItemStack itemStack = new net.minecraft.item.ItemStack(Items.FIREWORKS);
                 FireworkUtils.setFireworkEffects(itemStack, effects);
                 final SPacketEntityMetadata packetEntityMetadata = new SPacketEntityMetadata();
                 packetEntityMetadata.entityId = FIREWORK_ROCKET_ID;
                 packetEntityMetadata.dataManagerEntries = new ArrayList<>();
                 packetEntityMetadata.dataManagerEntries.add(new EntityDataManager.DataEntry<>(EntityFireworkRocket.FIREWORK_ITEM, itemStack));
-                final List<Packet<?>> packets = new ArrayList<>();
-                packets.add(packetSpawnObject);
-                packets.add(packetEntityMetadata);
-                packets.add(FIREWORK_ROCKET_DUMMY_EFFECT);
-                packets.add(DESTROY_FIREWORK_ROCKET_DUMMY);
-                return packets;
+                return new CachedFireworkPacket(packetEntityMetadata);
             }
-            BlockPos pos = new BlockPos(Math.round(position.getX()), Math.round(position.getY()), Math.round(position.getZ()));
             if (type == ParticleTypes.FERTILIZER) {
                 int quantity = effect.getOptionOrDefault(ParticleOptions.QUANTITY).get();
-                return Collections.singletonList(new SPacketEffect(2005, pos, quantity, false));
+                return new CachedEffectPacket(2005, quantity);
             } else if (type == ParticleTypes.SPLASH_POTION) {
                 Potion potion = (Potion) effect.getOptionOrDefault(ParticleOptions.POTION_EFFECT_TYPE).get();
                 for (PotionType potionType : PotionType.REGISTRY) {
                     for (net.minecraft.potion.PotionEffect potionEffect : potionType.getEffects()) {
                         if (potionEffect.getPotion() == potion) {
-                            return Collections.singletonList(new SPacketEffect(2002, pos, PotionType.REGISTRY.getIDForObject(potionType), false));
+                            return new CachedEffectPacket(2002, PotionType.REGISTRY.getIDForObject(potionType));
                         }
                     }
                 }
-                return Collections.emptyList();
+                return EmptyCachedPacket.INSTANCE;
             } else if (type == ParticleTypes.BREAK_BLOCK) {
                 int state = getBlockState(effect, type.getDefaultOption(ParticleOptions.BLOCK_STATE));
                 if (state == 0) {
-                    return Collections.emptyList();
+                    return EmptyCachedPacket.INSTANCE;
                 }
-                return Collections.singletonList(new SPacketEffect(2001, pos, state, false));
+                return new CachedEffectPacket(2001, state);
             } else if (type == ParticleTypes.MOBSPAWNER_FLAMES) {
-                return Collections.singletonList(new SPacketEffect(2004, pos, 0, false));
+                return new CachedEffectPacket(2004, 0);
             } else if (type == ParticleTypes.ENDER_TELEPORT) {
-                return Collections.singletonList(new SPacketEffect(2003, pos, 0, false));
+                return new CachedEffectPacket(2003, 0);
             } else if (type == ParticleTypes.DRAGON_BREATH_ATTACK) {
-                return Collections.singletonList(new SPacketEffect(2006, pos, 0, false));
+                return new CachedEffectPacket(2006, 0);
             } else if (type == ParticleTypes.FIRE_SMOKE) {
                 final Direction direction = effect.getOptionOrDefault(ParticleOptions.DIRECTION).get();
-                return Collections.singletonList(new SPacketEffect(2000, pos, getDirectionData(direction), false));
+                return new CachedEffectPacket(2000, getDirectionData(direction));
             }
-            return Collections.emptyList();
+            return EmptyCachedPacket.INSTANCE;
         }
 
         Vector3d offset = effect.getOption(ParticleOptions.OFFSET).orElse(Vector3d.ZERO);
@@ -216,14 +244,6 @@ public static List<Packet<?>> toPackets(SpongeParticleEffect effect, Vector3d po
         int quantity = effect.getOption(ParticleOptions.QUANTITY).orElse(1);
         int[] extra = null;
 
-        float px = (float) position.getX();
-        float py = (float) position.getY();
-        float pz = (float) position.getZ();
-
-        double ox = offset.getX();
-        double oy = offset.getY();
-        double oz = offset.getZ();
-
         // The extra values, normal behavior offsetX, offsetY, offsetZ
         double f0 = 0f;
         double f1 = 0f;
@@ -236,7 +256,7 @@ public static List<Packet<?>> toPackets(SpongeParticleEffect effect, Vector3d po
         if (internal != EnumParticleTypes.ITEM_CRACK && (defaultBlockState = type.getDefaultOption(ParticleOptions.BLOCK_STATE)).isPresent()) {
             int state = getBlockState(effect, defaultBlockState);
             if (state == 0) {
-                return Collections.emptyList();
+                return EmptyCachedPacket.INSTANCE;
             }
             extra = new int[] { state };
         }
@@ -256,7 +276,7 @@ public static List<Packet<?>> toPackets(SpongeParticleEffect effect, Vector3d po
                         extra = new int[] { Item.getIdFromItem((Item) optItemType.get()),
                                 ((Block) blockState.getType()).getMetaFromState((IBlockState) blockState) };
                     } else {
-                        return Collections.emptyList();
+                        return EmptyCachedPacket.INSTANCE;
                     }
                 } else {
                     ItemStackSnapshot snapshot = defaultSnapshot.get();
@@ -285,8 +305,7 @@ public static List<Packet<?>> toPackets(SpongeParticleEffect effect, Vector3d po
             }
 
             if (scale == 0f) {
-                return Collections.singletonList(
-                        new SPacketParticles(internal, true, px, py, pz, (float) ox, (float) oy, (float) oz, 0f, quantity, extra));
+                return new CachedOffsetParticlePacket(internal, offset, quantity, extra);
             }
 
             f0 = scale;
@@ -296,8 +315,7 @@ public static List<Packet<?>> toPackets(SpongeParticleEffect effect, Vector3d po
             boolean isSpell = internal == EnumParticleTypes.SPELL_MOB || internal == EnumParticleTypes.SPELL_MOB_AMBIENT;
 
             if (!isSpell && (color == null || color.equals(defaultColor.get()))) {
-                return Collections.singletonList(
-                        new SPacketParticles(internal, true, px, py, pz, (float) ox, (float) oy, (float) oz, 0f, quantity, extra));
+                return new CachedOffsetParticlePacket(internal, offset, quantity, extra);
             } else if (isSpell && color == null) {
                 color = defaultColor.get();
             }
@@ -323,8 +341,7 @@ public static List<Packet<?>> toPackets(SpongeParticleEffect effect, Vector3d po
             float note = ((SpongeNotePitch) notePitch).getByteId();
 
             if (note == 0f) {
-                return Collections.singletonList(
-                        new SPacketParticles(internal, true, px, py, pz, (float) ox, (float) oy, (float) oz, 0f, quantity, extra));
+                return new CachedOffsetParticlePacket(internal, offset, quantity, extra);
             }
 
             f0 = note / 24f;
@@ -346,38 +363,147 @@ public static List<Packet<?>> toPackets(SpongeParticleEffect effect, Vector3d po
             if (internal == EnumParticleTypes.WATER_SPLASH) {
                 f1 = 0f;
             }
-
-            if (f0 == 0f && f1 == 0f && f2 == 0f) {
-                return Collections.singletonList(
-                        new SPacketParticles(internal, true, px, py, pz, (float) ox, (float) oy, (float) oz, 0f, quantity, extra));
-            }
         }
 
-        // Is this check necessary?
         if (f0 == 0f && f1 == 0f && f2 == 0f) {
-            return Collections.singletonList(new SPacketParticles(internal, true, px, py, pz, (float) ox, (float) oy, (float) oz, 0f, quantity, extra));
+            return new CachedOffsetParticlePacket(internal, offset, quantity, extra);
         }
 
-        List<Packet<?>> packets = new ArrayList<>(quantity);
+        return new CachedVelocityParticlePacket(internal, offset, new Vector3d(f0, f1, f2), quantity, extra);
+    }
 
-        if (ox == 0f && oy == 0f && oz == 0f) {
-            for (int i = 0; i < quantity; i++) {
-                packets.add(new SPacketParticles(internal, true, px, py, pz, (float) f0, (float) f1, (float) f2, 1f, 0, extra));
-            }
-        } else {
-            Random random = new Random();
+    private static final class EmptyCachedPacket implements CachedParticlePacket {
 
-            for (int i = 0; i < quantity; i++) {
-                double px0 = (px + (random.nextFloat() * 2f - 1f) * ox);
-                double py0 = (py + (random.nextFloat() * 2f - 1f) * oy);
-                double pz0 = (pz + (random.nextFloat() * 2f - 1f) * oz);
+        static final EmptyCachedPacket INSTANCE = new EmptyCachedPacket();
 
-                packets.add(new SPacketParticles(internal, true, (float) px0, (float) py0, (float) pz0, (float) f0, (float) f1, (float) f2, 1f, 0,
-                        extra));
-            }
+        @Override
+        public void process(Vector3d position, List<Packet<?>> output) {
         }
+    }
 
-        return packets;
+    private static final class CachedFireworkPacket implements CachedParticlePacket {
+
+        private final SPacketEntityMetadata packetEntityMetadata;
+
+        CachedFireworkPacket(SPacketEntityMetadata packetEntityMetadata) {
+            this.packetEntityMetadata = packetEntityMetadata;
+        }
+
+        @Override
+        public void process(Vector3d position, List<Packet<?>> output) {
+            final SPacketSpawnObject packetSpawnObject = new SPacketSpawnObject();
+            packetSpawnObject.entityId = FIREWORK_ROCKET_ID;
+            packetSpawnObject.uniqueId = FIREWORK_ROCKET_UNIQUE_ID;
+            packetSpawnObject.x = position.getX();
+            packetSpawnObject.y = position.getY();
+            packetSpawnObject.z = position.getZ();
+            // The internal id that that is used to spawn a "EntityFireworkRocket" on the client,
+            // can be found at: EntityTrackerEntry#createSpawnPacket
+            // or: NetHandlerPlayClient#handleSpawnObject
+            packetSpawnObject.type = 76;
+            output.add(packetSpawnObject);
+            output.add(this.packetEntityMetadata);
+            output.add(FIREWORK_ROCKET_DUMMY_EFFECT);
+            output.add(DESTROY_FIREWORK_ROCKET_DUMMY);
+        }
+    }
+
+    private static final class CachedEffectPacket implements CachedParticlePacket {
+
+        private final int type;
+        private final int data;
+
+        CachedEffectPacket(int type, int data) {
+            this.type = type;
+            this.data = data;
+        }
+
+        @Override
+        public void process(Vector3d position, List<Packet<?>> output) {
+            BlockPos pos = new BlockPos(Math.round(position.getX()), Math.round(position.getY()), Math.round(position.getZ()));
+            output.add(new SPacketEffect(this.type, pos, this.data, false));
+        }
+    }
+
+    /**
+     * A single packet, the client spreads the particles over the offset.
+     */
+    private static final class CachedOffsetParticlePacket implements CachedParticlePacket {
+
+        private final EnumParticleTypes particleType;
+        private final float offsetX;
+        private final float offsetY;
+        private final float offsetZ;
+        private final int quantity;
+        private final int[] extra;
+
+        CachedOffsetParticlePacket(EnumParticleTypes particleType, Vector3d offset, int quantity, int[] extra) {
+            this.particleType = particleType;
+            this.offsetX = (float) offset.getX();
+            this.offsetY = (float) offset.getY();
+            this.offsetZ = (float) offset.getZ();
+            this.quantity = quantity;
+            this.extra = extra;
+        }
+
+        @Override
+        public void process(Vector3d position, List<Packet<?>> output) {
+            output.add(new SPacketParticles(this.particleType, true, (float) position.getX(), (float) position.getY(), (float) position.getZ(),
+                    this.offsetX, this.offsetY, this.offsetZ, 0f, this.quantity, this.extra));
+        }
+    }
+
+    /**
+     * One packet per particle, the offset fields are used for the velocity,
+     * color, etc. so the particles have to be spread over the offset here.
+     */
+    private static final class CachedVelocityParticlePacket implements CachedParticlePacket {
+
+        private final EnumParticleTypes particleType;
+        private final double offsetX;
+        private final double offsetY;
+        private final double offsetZ;
+        private final float f0;
+        private final float f1;
+        private final float f2;
+        private final int quantity;
+        private final int[] extra;
+
+        CachedVelocityParticlePacket(EnumParticleTypes particleType, Vector3d offset, Vector3d extraValues, int quantity, int[] extra) {
+            this.particleType = particleType;
+            this.offsetX = offset.getX();
+            this.offsetY = offset.getY();
+            this.offsetZ = offset.getZ();
+            this.f0 = (float) extraValues.getX();
+            this.f1 = (float) extraValues.getY();
+            this.f2 = (float) extraValues.getZ();
+            this.quantity = quantity;
+            this.extra = extra;
+        }
+
+        @Override
+        public void process(Vector3d position, List<Packet<?>> output) {
+            float px = (float) position.getX();
+            float py = (float) position.getY();
+            float pz = (float) position.getZ();
+
+            if (this.offsetX == 0f && this.offsetY == 0f && this.offsetZ == 0f) {
+                for (int i = 0; i < this.quantity; i++) {
+                    output.add(new SPacketParticles(this.particleType, true, px, py, pz, this.f0, this.f1, this.f2, 1f, 0, this.extra));
+                }
+            } else {
+                Random random = ThreadLocalRandom.current();
+
+                for (int i = 0; i < this.quantity; i++) {
+                    double px0 = (px + (random.nextFloat() * 2f - 1f) * this.offsetX);
+                    double py0 = (py + (random.nextFloat() * 2f - 1f) * this.offsetY);
+                    double pz0 = (pz + (random.nextFloat() * 2f - 1f) * this.offsetZ);
+
+                    output.add(new SPacketParticles(this.particleType, true, (float) px0, (float) py0, (float) pz0, this.f0, this.f1, this.f2, 1f, 0,
+                            this.extra));
+                }
+            }
+        }
     }
 
     private SpongeParticleHelper() {
@@ -113,7 +113,6 @@
 import org.spongepowered.common.world.WorldManager;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
@@ -857,8 +856,7 @@ public static EntityItem entityOnDropItem(Entity entity, ItemStack itemStack, fl
             if (CauseTracker.ENABLED && !currentState.getPhase().ignoresItemPreMerging(currentState) && SpongeImpl.getGlobalConfig().getConfig().getOptimizations().doDropsPreMergeItemDrops()) {
                 if (currentState.tracksEntitySpecificDrops()) {
                     final Multimap<UUID, ItemDropData> multimap = phaseContext.getCapturedEntityDropSupplier().get();
-                    final Collection<ItemDropData> itemStacks = multimap.get(entity.getUniqueID());
-                    SpongeImplHooks.addItemStackToListForSpawning(itemStacks, ItemDropData.item(item)
+                    SpongeImplHooks.addItemStackToListForSpawning(multimap, entity.getUniqueID(), ItemDropData.item(item)
                             .position(new Vector3d(posX, posY, posZ))
                             .build());
                     return null;
@@ -929,8 +927,7 @@ public static EntityItem playerDropItem(IMixinEntityPlayer mixinPlayer, ItemStac
         if (CauseTracker.ENABLED && !currentState.getPhase().ignoresItemPreMerging(currentState) && SpongeImpl.getGlobalConfig().getConfig().getOptimizations().doDropsPreMergeItemDrops()) {
             if (currentState.tracksEntitySpecificDrops()) {
                 final Multimap<UUID, ItemDropData> multimap = phaseContext.getCapturedEntityDropSupplier().get();
-                final Collection<ItemDropData> itemStacks = multimap.get(player.getUniqueID());
-                SpongeImplHooks.addItemStackToListForSpawning(itemStacks, ItemDropData.Player.player(player)
+                SpongeImplHooks.addItemStackToListForSpawning(multimap, player.getUniqueID(), ItemDropData.Player.player(player)
                         .stack(item)
                         .trace(traceItem)
                         .motion(createDropMotion(dropAround, player, mixinPlayer.getRandom()))
@@ -25,11 +25,11 @@
 package org.spongepowered.common.entity.player;
 
 import com.flowpowered.math.vector.Vector3d;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.mojang.authlib.GameProfile;
-import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.world.storage.SaveHandler;
@@ -47,15 +47,11 @@
 import org.spongepowered.api.item.inventory.equipment.EquipmentType;
 import org.spongepowered.api.item.inventory.type.CarriedInventory;
 import org.spongepowered.api.util.RespawnLocation;
-import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.data.util.DataQueries;
 import org.spongepowered.common.data.util.NbtDataUtil;
 import org.spongepowered.common.world.WorldManager;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -124,13 +120,17 @@ public void readFromNbt(NBTTagCompound compound) {
     }
 
     public void writeToNbt(NBTTagCompound compound) {
+        writeToNbt(compound, this.spawnLocations);
+    }
+
+    static void writeToNbt(NBTTagCompound compound, Map<UUID, RespawnLocation> spawnLocations) {
 
         final NBTTagCompound forgeCompound = compound.getCompoundTag(NbtDataUtil.FORGE_DATA);
         final NBTTagCompound spongeCompound = forgeCompound.getCompoundTag(NbtDataUtil.SPONGE_DATA);
         spongeCompound.removeTag(NbtDataUtil.USER_SPAWN_LIST);
 
         final NBTTagList spawnList = new NBTTagList();
-        for (Entry<UUID, RespawnLocation> entry : this.spawnLocations.entrySet()) {
+        for (Entry<UUID, RespawnLocation> entry : spawnLocations.entrySet()) {
             final RespawnLocation respawn = entry.getValue();
 
             final NBTTagCompound spawnCompound = new NBTTagCompound();
@@ -290,26 +290,23 @@ private void markDirty() {
         dirtyUsers.add(this);
     }
 
+    /**
+     * Queues the data of this user to be written to its data file, the data
+     * is snapshotted now and written off the main thread.
+     */
     public void save() {
         SaveHandler saveHandler = (SaveHandler) WorldManager.getWorldByDimensionId(0).get().getSaveHandler();
         File dataFile = new File(saveHandler.playersDirectory, getUniqueId() + ".dat");
-        NBTTagCompound tag;
-        if (dataFile.isFile()) {
-            try {
-                tag = CompressedStreamTools.readCompressed(new FileInputStream(dataFile));
-            } catch (IOException ignored) {
-                // Nevermind
-                tag = new NBTTagCompound();
-            }
-        } else {
-            tag = new NBTTagCompound();
+        UserSaveQueue.queue(this, dataFile, ImmutableMap.copyOf(this.spawnLocations));
+        dirtyUsers.remove(this);
+    }
+
+    public static void saveDirtyUsers() {
+        if (dirtyUsers.isEmpty()) {
+            return;
         }
-        writeToNbt(tag);
-        try {
-            CompressedStreamTools.writeCompressed(tag, new FileOutputStream(dataFile));
-            dirtyUsers.remove(this);
-        } catch (IOException e) {
-            SpongeImpl.getLogger().warn("Failed to save user file [{}]!", dataFile, e);
+        for (SpongeUser user : ImmutableList.copyOf(dirtyUsers)) {
+            user.save();
         }
     }
 
@@ -0,0 +1,199 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity.player;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import org.spongepowered.api.util.RespawnLocation;
+import org.spongepowered.common.SpongeImpl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the data of offline {@link SpongeUser}s off the main thread. The
+ * data is snapshotted on the main thread, repeated saves of a user that
+ * didn't start writing yet only replace the snapshot.
+ */
+public final class UserSaveQueue {
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("Sponge User Saver")
+            .setDaemon(true)
+            .build());
+    private static final Map<UUID, SaveTask> saves = new ConcurrentHashMap<>();
+    private static final String TEMP_FILE_SUFFIX = ".sponge.tmp";
+
+    private static final AtomicLong completedSaves = new AtomicLong();
+    private static final AtomicLong totalWriteNanos = new AtomicLong();
+    private static volatile long lastWriteNanos;
+
+    private UserSaveQueue() {
+    }
+
+    /**
+     * Queues the snapshot to be written to the data file of the user.
+     *
+     * @param user The user
+     * @param dataFile The data file
+     * @param spawnLocations The snapshot of the spawn locations
+     */
+    static void queue(SpongeUser user, File dataFile, Map<UUID, RespawnLocation> spawnLocations) {
+        saves.compute(user.getUniqueId(), (uuid, task) -> {
+            if (task != null && !task.started) {
+                task.spawnLocations = spawnLocations;
+                return task;
+            }
+            final SaveTask newTask = new SaveTask(user, dataFile, spawnLocations);
+            executor.execute(newTask);
+            return newTask;
+        });
+    }
+
+    /**
+     * Waits until the queued save of the user, if any, is written.
+     *
+     * @param uniqueId The unique id of the user
+     */
+    public static void await(UUID uniqueId) {
+        final SaveTask task = saves.get(uniqueId);
+        if (task != null) {
+            task.future.join();
+        }
+    }
+
+    /**
+     * Waits until all queued saves are written.
+     */
+    public static void awaitAll() {
+        CompletableFuture.runAsync(() -> {}, executor).join();
+    }
+
+    public static int getQueueDepth() {
+        return saves.size();
+    }
+
+    public static long getCompletedSaves() {
+        return completedSaves.get();
+    }
+
+    public static long getLastWriteMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastWriteNanos);
+    }
+
+    public static double getAverageWriteMillis() {
+        final long completed = completedSaves.get();
+        return completed == 0 ? 0 : totalWriteNanos.get() / (double) completed / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static void write(File dataFile, Map<UUID, RespawnLocation> spawnLocations) throws IOException {
+        NBTTagCompound tag;
+        if (dataFile.isFile()) {
+            try (InputStream inputStream = new FileInputStream(dataFile)) {
+                tag = CompressedStreamTools.readCompressed(inputStream);
+            } catch (IOException ignored) {
+                // Nevermind
+                tag = new NBTTagCompound();
+            }
+        } else {
+            tag = new NBTTagCompound();
+        }
+        SpongeUser.writeToNbt(tag, spawnLocations);
+        // Write to a temporary file first, a crash while writing must not corrupt the data file. The suffix
+        // differs from the one of the vanilla save handler, which writes its own temporary files next to it.
+        final File tempFile = new File(dataFile.getParentFile(), dataFile.getName() + TEMP_FILE_SUFFIX);
+        try (OutputStream outputStream = new FileOutputStream(tempFile)) {
+            CompressedStreamTools.writeCompressed(tag, outputStream);
+        }
+        try {
+            Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static final class SaveTask implements Runnable {
+
+        private final SpongeUser user;
+        private final File dataFile;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        volatile Map<UUID, RespawnLocation> spawnLocations;
+        // Only modified while holding the map entry
+        boolean started;
+
+        SaveTask(SpongeUser user, File dataFile, Map<UUID, RespawnLocation> spawnLocations) {
+            this.user = user;
+            this.dataFile = dataFile;
+            this.spawnLocations = spawnLocations;
+        }
+
+        @Override
+        public void run() {
+            // Later saves of the user queue a new task from here on
+            saves.computeIfPresent(this.user.getUniqueId(), (uuid, task) -> {
+                if (task == this) {
+                    this.started = true;
+                }
+                return task;
+            });
+            final long start = System.nanoTime();
+            try {
+                try {
+                    write(this.dataFile, this.spawnLocations);
+                } catch (IOException e) {
+                    SpongeImpl.getLogger().warn("Failed to save user file [{}], trying again.", this.dataFile, e);
+                    // Retry right away, scheduled tasks no longer run once the server is stopping
+                    write(this.dataFile, this.spawnLocations);
+                }
+            } catch (IOException e) {
+                SpongeImpl.getLogger().error("Failed to save user file [{}], the changes to the user {} are lost!", this.dataFile,
+                        this.user.getUniqueId(), e);
+            } finally {
+                final long duration = System.nanoTime() - start;
+                lastWriteNanos = duration;
+                totalWriteNanos.addAndGet(duration);
+                completedSaves.incrementAndGet();
+                saves.remove(this.user.getUniqueId(), this);
+                this.future.complete(null);
+            }
+        }
+    }
+}
@@ -94,6 +94,7 @@ public static final class General {
         public static final String PLUGIN_CAUSE = "PluginCause";
         public static final String BLOCK_CHANGE = "BlockChangeFlag";
         public static final String ANIMAL_SPAWNER = "AnimalSpawner";
+        public static final String MERGED_EXPLOSIONS = "MergedExplosions";
 
         private General() {
         }
@@ -51,6 +51,11 @@ public Multimap<K, V> get() {
         return this.captured;
     }
 
+    // Drops the captured objects instead of clearing them, they may still be referenced
+    final void reset() {
+        this.captured = null;
+    }
+
     public final boolean isEmpty() {
         return this.captured == null || this.captured.isEmpty();
     }
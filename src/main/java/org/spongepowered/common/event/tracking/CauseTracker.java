@@ -62,9 +62,12 @@
 import org.spongepowered.common.interfaces.world.IMixinWorld;
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
 
@@ -103,6 +106,8 @@ public final class CauseTracker {
     private final CauseStack stack = new CauseStack();
 
     @Nullable private PhaseData currentProcessingState = null;
+    // Phases that are only entered once the world is accessed through this tracker, outermost first
+    private final Deque<PendingPhase> pendingPhases = new ArrayDeque<>();
 
     public final boolean isVerbose = SpongeImpl.getGlobalConfig().getConfig().getCauseTracker().isVerbose();
     public final boolean verboseErrors = SpongeImpl.getGlobalConfig().getConfig().getCauseTracker().verboseErrors();
@@ -118,6 +123,7 @@ public CauseTracker(WorldServer targetWorld) {
     // ----------------- STATE ACCESS ----------------------------------
 
     public void switchToPhase(IPhaseState state, PhaseContext phaseContext) {
+        enterPendingPhases();
         checkNotNull(state, "State cannot be null!");
         checkNotNull(state.getPhase(), "Phase cannot be null!");
         checkNotNull(phaseContext, "PhaseContext cannot be null!");
@@ -138,6 +144,38 @@ public void switchToPhase(IPhaseState state, PhaseContext phaseContext) {
         this.stack.push(state, phaseContext);
     }
 
+    /**
+     * Switches to the given phase once this world is first accessed through
+     * this tracker, the context is only created at that point. Phases
+     * entered like this must be completed through {@link #completeLazyPhase()}.
+     *
+     * @param state The state to switch to
+     * @param phaseContext The supplier of the phase context
+     */
+    public void switchToPhaseLazily(IPhaseState state, Supplier<PhaseContext> phaseContext) {
+        checkNotNull(state, "State cannot be null!");
+        checkNotNull(phaseContext, "PhaseContext supplier cannot be null!");
+        this.pendingPhases.addLast(new PendingPhase(state, phaseContext));
+    }
+
+    /**
+     * Completes the innermost phase switched to through
+     * {@link #switchToPhaseLazily(IPhaseState, Supplier)}, nothing needs to be
+     * unwound if the phase was never entered.
+     */
+    public void completeLazyPhase() {
+        if (this.pendingPhases.pollLast() == null) {
+            completePhase();
+        }
+    }
+
+    private void enterPendingPhases() {
+        PendingPhase pending;
+        while ((pending = this.pendingPhases.pollFirst()) != null) {
+            switchToPhase(pending.state, pending.context.get());
+        }
+    }
+
     public void completePhase() {
         final PhaseData currentPhaseData = this.stack.peek();
         final IPhaseState state = currentPhaseData.state;
@@ -285,17 +323,39 @@ public IMixinWorldServer getMixinWorld() {
     }
 
     public PhaseData getCurrentPhaseData() {
+        enterPendingPhases();
         return this.stack.peek();
     }
 
     public IPhaseState getCurrentState() {
+        enterPendingPhases();
         return this.stack.peekState();
     }
 
     public PhaseContext getCurrentContext() {
+        enterPendingPhases();
         return this.stack.peekContext();
     }
 
+    /**
+     * Describes the phases on the stack, outermost first. This may be called
+     * from other threads for diagnostics, the description is then only a
+     * best effort.
+     *
+     * @return The descriptions of the phases
+     */
+    public List<String> describePhases() {
+        final List<String> phases = new ArrayList<>();
+        try {
+            this.stack.forEach(data -> phases.add(0, data.state + data.context.getSource(Object.class)
+                    .map(source -> " (source: " + source + ")")
+                    .orElse("")));
+        } catch (RuntimeException e) {
+            // The stack changed while reading it
+        }
+        return phases;
+    }
+
     public PhaseData getCurrentProcessingPhase() {
         return this.currentProcessingState == null ? CauseStack.EMPTY_DATA : this.currentProcessingState;
     }
@@ -317,6 +377,7 @@ public void notifyBlockOfStateChange(final BlockPos notifyPos, final Block sourc
         try {
             // Sponge start - prepare notification
             if (CauseTracker.ENABLED) {
+                enterPendingPhases();
                 final PhaseData peek = this.stack.peek();
                 final IPhaseState state = peek.state;
                 state.getPhase().associateNeighborStateNotifier(state, peek.context, sourcePos, iblockstate.getBlock(), notifyPos, this.targetWorld, PlayerTracker.Type.NOTIFIER);
@@ -369,6 +430,7 @@ public boolean setBlockState(final BlockPos pos, final IBlockState newState, fin
         }
 
         // Now we need to do some of our own logic to see if we need to capture.
+        enterPendingPhases();
         final PhaseData phaseData = this.stack.peek();
         final IPhaseState phaseState = phaseData.state;
         final boolean isComplete = phaseState == GeneralPhase.State.COMPLETE;
@@ -502,6 +564,7 @@ public boolean spawnEntity(Entity entity) {
 
         final net.minecraft.entity.Entity minecraftEntity = EntityUtil.toNative(entity);
         final WorldServer minecraftWorld = this.getMinecraftWorld();
+        enterPendingPhases();
         final PhaseData phaseData = this.stack.peek();
         final IPhaseState phaseState = phaseData.state;
         final PhaseContext context = phaseData.context;
@@ -635,4 +698,14 @@ public boolean spawnEntityWithCause(Entity entity, Cause cause) {
         }
     }
 
+    private static final class PendingPhase {
+
+        final IPhaseState state;
+        final Supplier<PhaseContext> context;
+
+        PendingPhase(IPhaseState state, Supplier<PhaseContext> context) {
+            this.state = state;
+            this.context = context;
+        }
+    }
 }
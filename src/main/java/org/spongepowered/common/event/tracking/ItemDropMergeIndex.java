@@ -0,0 +1,207 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event.tracking;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Multimap;
+import net.minecraft.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Pre-merges captured {@link ItemDropData} into the stacks already captured
+ * in the same collection. Each collection is indexed by a hash of the item,
+ * metadata, compound and kind of drop, so that only the drops sharing that
+ * hash have to be compared instead of every captured drop.
+ *
+ * <p>The collections of a multimap are new views every time they are
+ * looked up, so their indices are kept by the multimap and key instead.</p>
+ *
+ * <p>The collections may be changed elsewhere, such as by clearing the drops
+ * of a cancelled block change. The index is built again if the size or the
+ * last drop of the collection changed, or if the count of an indexed stack
+ * isn't the one it was indexed with.</p>
+ */
+public final class ItemDropMergeIndex {
+
+    private static final Map<Collection<ItemDropData>, ItemDropMergeIndex> INDICES = new MapMaker().weakKeys().makeMap();
+    private static final Map<Multimap<?, ItemDropData>, Map<Object, ItemDropMergeIndex>> MULTIMAP_INDICES = new MapMaker().weakKeys().makeMap();
+
+    private final Map<Integer, List<Entry>> buckets = new HashMap<>();
+    private int indexedSize;
+    @Nullable private ItemDropData indexedLast;
+
+    private ItemDropMergeIndex() {
+    }
+
+    public static void addItemStackToListForSpawning(Collection<ItemDropData> itemStacks, ItemDropData data) {
+        INDICES.computeIfAbsent(itemStacks, key -> new ItemDropMergeIndex()).add(itemStacks, data);
+    }
+
+    public static <K> void addItemStackToListForSpawning(Multimap<K, ItemDropData> multimap, K key, ItemDropData data) {
+        MULTIMAP_INDICES.computeIfAbsent(multimap, k -> new HashMap<>())
+                .computeIfAbsent(key, k -> new ItemDropMergeIndex())
+                .add(multimap.get(key), data);
+    }
+
+    private void add(Collection<ItemDropData> itemStacks, ItemDropData data) {
+        final ItemStack itemStack = data.getStack();
+        if (itemStack == null) {
+            return;
+        }
+        if (this.indexedSize != itemStacks.size() || this.indexedLast != Iterables.getLast(itemStacks, null)) {
+            rebuild(itemStacks);
+        }
+        final int hash = hash(data, itemStack);
+        List<Entry> bucket = this.buckets.get(hash);
+        if (bucket != null && !isCurrent(bucket)) {
+            rebuild(itemStacks);
+            bucket = this.buckets.get(hash);
+        }
+        boolean addToList = true;
+        if (bucket != null) {
+            for (Iterator<Entry> iterator = bucket.iterator(); iterator.hasNext(); ) {
+                final Entry entry = iterator.next();
+                final ItemDropData existingData = entry.data;
+                final ItemStack existing = existingData.getStack();
+                if (!canMerge(existingData, existing, data, itemStack)) {
+                    continue;
+                }
+                // now to actually merge the itemstacks
+                final int existingMaxStackSize = existing.getMaxStackSize();
+                final int proposedStackSize = existing.getCount() + itemStack.getCount();
+                if (existingMaxStackSize < proposedStackSize) {
+                    existing.setCount(existingMaxStackSize);
+                    itemStack.setCount(proposedStackSize - existingMaxStackSize);
+                    // Full stacks can't take anything else, so the next "equals" item stack can take the rest
+                    iterator.remove();
+                } else {
+                    existing.setCount(proposedStackSize);
+                    itemStack.setCount(0);
+                    entry.count = proposedStackSize;
+                    if (proposedStackSize == existingMaxStackSize) {
+                        iterator.remove();
+                    }
+                    addToList = false;
+                    break;
+                }
+            }
+        }
+        if (addToList) {
+            if (itemStack.getItem() != null || itemStack.getCount() > 0) {
+                itemStacks.add(data);
+                add(hash, data, itemStack);
+            }
+        }
+        this.indexedSize = itemStacks.size();
+        this.indexedLast = Iterables.getLast(itemStacks, null);
+    }
+
+    private static boolean isCurrent(List<Entry> bucket) {
+        for (Entry entry : bucket) {
+            final ItemStack existing = entry.data.getStack();
+            if (existing == null || existing.getCount() != entry.count) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rebuild(Collection<ItemDropData> itemStacks) {
+        this.buckets.clear();
+        for (ItemDropData existingData : itemStacks) {
+            final ItemStack existing = existingData.getStack();
+            if (existing != null && existing.getCount() < existing.getMaxStackSize()) {
+                add(hash(existingData, existing), existingData, existing);
+            }
+        }
+    }
+
+    private void add(int hash, ItemDropData data, ItemStack itemStack) {
+        this.buckets.computeIfAbsent(hash, key -> new ArrayList<>()).add(new Entry(data, itemStack.getCount()));
+    }
+
+    private static int hash(ItemDropData data, ItemStack itemStack) {
+        int hash = System.identityHashCode(itemStack.getItem());
+        hash = 31 * hash + (itemStack.getItem() != null && itemStack.getItem().getHasSubtypes() ? itemStack.getMetadata() : 0);
+        hash = 31 * hash + (itemStack.hasTagCompound() ? itemStack.getTagCompound().hashCode() : 0);
+        if (data instanceof ItemDropData.Player) {
+            final ItemDropData.Player playerData = (ItemDropData.Player) data;
+            hash = 31 * hash + 1 + (playerData.isTrace() ? 2 : 0) + (playerData.isDropAround() ? 4 : 0);
+        } else {
+            hash = 31 * hash;
+        }
+        return hash;
+    }
+
+    private static boolean canMerge(ItemDropData existingData, ItemStack existing, ItemDropData data, ItemStack itemStack) {
+        final boolean isExistingPlayer = existingData instanceof ItemDropData.Player;
+        if (isExistingPlayer != data instanceof ItemDropData.Player) {
+            return false;
+        }
+        if (isExistingPlayer) {
+            final ItemDropData.Player existingPlayerData = (ItemDropData.Player) existingData;
+            final ItemDropData.Player playerData = (ItemDropData.Player) data;
+            if (existingPlayerData.isTrace() ^ playerData.isTrace()) {
+                return false;
+            }
+            if (existingPlayerData.isDropAround() ^ playerData.isDropAround()) {
+                return false;
+            }
+        }
+        if (existing.getItem() != itemStack.getItem()) {
+            return false;
+        } else if (existing.hasTagCompound() ^ itemStack.hasTagCompound()) {
+            return false;
+        } else if (existing.hasTagCompound() && !existing.getTagCompound().equals(itemStack.getTagCompound())) {
+            return false;
+        } else if (existing.getItem() == null) {
+            return false;
+        } else if (existing.getItem().getHasSubtypes() && existing.getMetadata() != itemStack.getMetadata()) {
+            return false;
+        }
+        return true;
+    }
+
+    private static final class Entry {
+
+        final ItemDropData data;
+        // The count the stack had when it was last indexed or merged into
+        int count;
+
+        Entry(ItemDropData data, int count) {
+            this.data = data;
+            this.count = count;
+        }
+    }
+}
@@ -81,6 +81,8 @@ public class PhaseContext {
     @Nullable protected User notifier;
 
     private Object source;
+    // The number of context objects that are kept by #reset, -1 if this context isn't reusable
+    private int retainedObjects = -1;
 
     public static PhaseContext start() {
         return new PhaseContext();
@@ -243,6 +245,60 @@ public boolean isComplete() {
         return this.isCompleted;
     }
 
+    /**
+     * Marks everything that was added to this context so far as retained,
+     * the context can then be used again after {@link #reset()}. Only
+     * captures should be added before marking a context reusable.
+     *
+     * @return This context, for chaining
+     */
+    public PhaseContext markReusable() {
+        checkState(!this.isCompleted, "Cannot mark a context reusable if it's already marked as completed!");
+        checkState(this.source == null && this.owner == null && this.notifier == null, "Cannot mark a context with a source reusable!");
+        this.retainedObjects = this.contextObjects.size();
+        return this;
+    }
+
+    /**
+     * Removes everything that was added after {@link #markReusable()} and
+     * drops all captured objects, so the context can be populated again.
+     *
+     * @return This context, for chaining
+     */
+    public PhaseContext reset() {
+        checkState(this.retainedObjects >= 0, "Cannot reset a context that isn't reusable!");
+        this.contextObjects.subList(this.retainedObjects, this.contextObjects.size()).clear();
+        this.isCompleted = false;
+        this.cause = null;
+        this.source = null;
+        this.owner = null;
+        this.notifier = null;
+        this.cachedClass = null;
+        this.cachedObject = null;
+        this.cachedName = null;
+        resetSupplier(this.blocksSupplier);
+        resetSupplier(this.capturedItemsSupplier);
+        resetSupplier(this.capturedEntitiesSupplier);
+        resetSupplier(this.capturedItemStackSupplier);
+        resetSupplier(this.blockItemDropsSupplier);
+        resetSupplier(this.blockItemEntityDropsSupplier);
+        resetSupplier(this.entityItemDropsSupplier);
+        resetSupplier(this.entityItemEntityDropsSupplier);
+        return this;
+    }
+
+    private static void resetSupplier(@Nullable CapturedSupplier<?> supplier) {
+        if (supplier != null) {
+            supplier.reset();
+        }
+    }
+
+    private static void resetSupplier(@Nullable CapturedMultiMapSupplier<?, ?> supplier) {
+        if (supplier != null) {
+            supplier.reset();
+        }
+    }
+
     @Nullable private Class<?> cachedClass;
     @Nullable private Object cachedObject;
     @Nullable private String cachedName;
@@ -81,8 +81,10 @@
 import org.spongepowered.common.interfaces.IMixinChunk;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 import javax.annotation.Nullable;
@@ -235,6 +237,7 @@ public static final class Inventory {
 
     private final Map<Class<? extends Packet<?>>, Function<Packet<?>, IPacketState>> packetTranslationMap = new IdentityHashMap<>();
     private final Map<Class<? extends Packet<?>>, PacketFunction> packetUnwindMap = new IdentityHashMap<>();
+    private final Set<Class<? extends Packet<?>>> lightweightPackets = Collections.newSetFromMap(new IdentityHashMap<>());
 
     // General use methods
 
@@ -242,6 +245,20 @@ public boolean isPacketInvalid(Packet<?> packetIn, EntityPlayerMP packetPlayer,
         return packetState.isPacketIgnored(packetIn, packetPlayer);
     }
 
+    /**
+     * Gets whether the packet is processed with a lightweight context. These
+     * packets arrive many times per second per player and never touch
+     * inventories, so the context only contains the player, the packet and
+     * the captures of the state. The contexts are reused between packets.
+     *
+     * @param packet The packet
+     * @return True if the packet can be processed with a lightweight context
+     */
+    @SuppressWarnings("SuspiciousMethodCalls")
+    public boolean isLightweightPacket(Packet<?> packet) {
+        return this.lightweightPackets.contains(packet.getClass());
+    }
+
     @SuppressWarnings({"unchecked", "SuspiciousMethodCalls"})
     public IPacketState getStateForPacket(Packet<?> packet) {
         final Function<Packet<?>, IPacketState> packetStateFunction = this.packetTranslationMap.get(packet.getClass());
@@ -382,6 +399,7 @@ public static PacketPhase getInstance() {
     private PacketPhase() {
         setupPacketToStateMapping();
         setupPacketToUnwindMapping();
+        setupLightweightPackets();
     }
 
     private static final class Holder {
@@ -420,6 +438,16 @@ public void setupPacketToUnwindMapping() {
     }
 
 
+    // The states of these packets may only add captures to their contexts
+    public void setupLightweightPackets() {
+        this.lightweightPackets.add(CPacketKeepAlive.class);
+        this.lightweightPackets.add(CPacketPlayer.class);
+        this.lightweightPackets.add(CPacketPlayer.Position.class);
+        this.lightweightPackets.add(CPacketPlayer.Rotation.class);
+        this.lightweightPackets.add(CPacketPlayer.PositionRotation.class);
+        this.lightweightPackets.add(CPacketInput.class);
+    }
+
     public void setupPacketToStateMapping() {
         this.packetTranslationMap.put(CPacketKeepAlive.class, packet -> General.IGNORED);
         this.packetTranslationMap.put(CPacketChatMessage.class, packet -> General.HANDLED_EXTERNALLY);
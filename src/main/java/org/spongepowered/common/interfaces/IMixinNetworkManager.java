@@ -25,6 +25,7 @@
 package org.spongepowered.common.interfaces;
 
 import com.mojang.authlib.properties.Property;
+import io.netty.buffer.ByteBuf;
 import org.spongepowered.api.MinecraftVersion;
 
 import java.net.InetSocketAddress;
@@ -52,4 +53,19 @@ public interface IMixinNetworkManager {
     Property[] getSpoofedProfile();
 
     void setSpoofedProfile(Property[] profile);
+
+    /**
+     * Writes an already encoded packet, packet id included, past the packet
+     * encoder of this connection. The buffer is not released, a retained
+     * duplicate is written instead.
+     *
+     * @param encoded The encoded packet
+     * @return False if the packet couldn't be sent this way and has to be
+     *     sent as a packet object instead
+     */
+    boolean sendEncodedPacket(ByteBuf encoded);
+
+    boolean isFlushPending();
+
+    void setFlushPending(boolean flushPending);
 }
@@ -24,6 +24,8 @@
  */
 package org.spongepowered.common.interfaces.entity.item;
 
+import net.minecraft.entity.item.EntityItem;
+
 public interface IMixinEntityItem {
 
     boolean infinitePickupDelay();
@@ -37,4 +39,6 @@ public interface IMixinEntityItem {
     int getDespawnDelay();
 
     void setDespawnDelay(int delay, boolean infinite);
+
+    boolean combineWith(EntityItem other);
 }
@@ -24,6 +24,8 @@
  */
 package org.spongepowered.common.interfaces.network;
 
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.Packet;
 import org.spongepowered.api.resourcepack.ResourcePack;
 import org.spongepowered.api.world.Location;
 import org.spongepowered.api.world.World;
@@ -39,4 +41,16 @@ public interface IMixinNetHandlerPlayServer {
     void captureCurrentPlayerPosition();
 
     void setLastMoveLocation(Location<World> location);
+
+    /**
+     * Writes the shared encoded form of the packet to this connection, if the
+     * packet would be sent unchanged. Packets that are filtered for this
+     * player, such as chat hidden by the chat visibility, are dropped the
+     * same as by {@link net.minecraft.network.NetHandlerPlayServer#sendPacket}.
+     *
+     * @param packet The packet to be sent
+     * @param encoded The encoded packet
+     * @return False if the packet has to be sent through sendPacket instead
+     */
+    boolean sendEncodedPacket(Packet<?> packet, ByteBuf encoded);
 }
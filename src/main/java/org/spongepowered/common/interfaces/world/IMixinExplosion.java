@@ -35,4 +35,8 @@ public interface IMixinExplosion {
     void setShouldDamageEntities(boolean shouldDamageEntities);
 
     Cause getCreatedCause();
+
+    int getMergeCount();
+
+    void setMergeCount(int mergeCount);
 }
@@ -28,10 +28,12 @@
 import com.flowpowered.math.vector.Vector3d;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.math.BlockPos;
 import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.effect.particle.ParticleEffect;
 import org.spongepowered.api.world.BlockChangeFlag;
 import org.spongepowered.api.world.explosion.Explosion;
 import org.spongepowered.common.block.SpongeBlockSnapshot;
@@ -100,4 +102,30 @@ default boolean forceSpawnEntity(Entity entity) {
 
     void doChunkGC();
 
+    /**
+     * Queues the item to be merged with the items around it once the
+     * entities of this world are updated.
+     *
+     * @param item The item
+     */
+    void queueItemMerge(EntityItem item);
+
+    /**
+     * Updates the position of the item for merging after it was updated.
+     *
+     * @param item The item
+     */
+    void updateItemMergePosition(EntityItem item);
+
+    /**
+     * Spawns the particle effect at all of the positions, the effect is
+     * only resolved once and each packet is encoded once for all players
+     * within the radius of its position.
+     *
+     * @param particleEffect The particle effect
+     * @param positions The positions
+     * @param radius The radius around each position
+     */
+    void spawnParticles(ParticleEffect particleEffect, Iterable<Vector3d> positions, int radius);
+
 }
@@ -157,11 +157,10 @@ public static void performBlockInventoryDrops(WorldServer worldServer, double x,
             } else {
                 final Multimap<BlockPos, ItemDropData> multimap = context.getBlockDropSupplier().get();
                 final BlockPos pos = new BlockPos(x, y, z);
-                final Collection<ItemDropData> itemStacks = multimap.get(pos);
                 for (int i = 0; i < inventory.getSizeInventory(); i++) {
                     final net.minecraft.item.ItemStack itemStack = inventory.getStackInSlot(i);
                     if (itemStack != null) {
-                        SpongeImplHooks.addItemStackToListForSpawning(itemStacks, ItemDropData.item(itemStack)
+                        SpongeImplHooks.addItemStackToListForSpawning(multimap, pos, ItemDropData.item(itemStack)
                                 .position(VecHelper.toVector3d(pos))
                                 .build());
                     }
@@ -25,6 +25,7 @@
 package org.spongepowered.common.mixin.core.ban;
 
 import net.minecraft.server.management.UserList;
+import net.minecraft.server.management.UserListOps;
 import org.apache.logging.log4j.Logger;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -32,6 +33,7 @@
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.service.permission.base.PermissionValueCache;
 
 import java.io.File;
 import java.util.List;
@@ -57,4 +59,12 @@ private void onReadSavedFile(CallbackInfo ci) {
         }
     }
 
+    // Permission values depend on the op levels
+    @Inject(method = {"readSavedFile", "addEntry", "removeEntry"}, at = @At("RETURN"))
+    private void onOpsChanged(CallbackInfo ci) {
+        if ((Object) this instanceof UserListOps) {
+            PermissionValueCache.invalidateAll();
+        }
+    }
+
 }
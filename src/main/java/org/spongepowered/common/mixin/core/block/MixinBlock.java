@@ -284,8 +284,7 @@ private static boolean redirectGameRulesToCaptureItemDrops(GameRules gameRules,
             if (currentState.tracksBlockSpecificDrops()) {
                 final PhaseContext context = currentPhase.context;
                 final Multimap<BlockPos, ItemDropData> multimap = context.getCapturedBlockDrops();
-                final Collection<ItemDropData> itemStacks = multimap.get(pos);
-                SpongeImplHooks.addItemStackToListForSpawning(itemStacks, ItemDropData.item(stack).position(VecHelper.toVector3d(pos)).build());
+                SpongeImplHooks.addItemStackToListForSpawning(multimap, pos, ItemDropData.item(stack).position(VecHelper.toVector3d(pos)).build());
                 return false;
             }
         }
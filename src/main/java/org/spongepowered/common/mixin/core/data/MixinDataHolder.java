@@ -49,6 +49,8 @@
 import org.spongepowered.common.data.DataProcessor;
 import org.spongepowered.common.data.SpongeDataManager;
 import org.spongepowered.common.data.ValueProcessor;
+import org.spongepowered.common.data.gen.KeyAccessor;
+import org.spongepowered.common.data.util.DataHolderKeyIndex;
 import org.spongepowered.common.entity.player.SpongeUser;
 import org.spongepowered.common.interfaces.data.IMixinCustomDataHolder;
 
@@ -304,6 +306,10 @@ public DataTransactionResult copyFrom(DataHolder that, MergeFunction function) {
 
     @Override
     public <E> Optional<E> get(Key<? extends BaseValue<E>> key) {
+        final KeyAccessor<E> accessor = SpongeDataManager.getInstance().getKeyAccessor(getClass(), checkNotNull(key));
+        if (accessor != null) {
+            return accessor.get(this);
+        }
         TimingsManager.DATA_GROUP_HANDLER.startTimingIfSync();
         SpongeTimings.dataGetByKey.startTimingIfSync();
         final Optional<ValueProcessor<E, ? extends BaseValue<E>>> optional = SpongeDataManager.getInstance().getBaseValueProcessor(checkNotNull(key));
@@ -368,11 +374,19 @@ public boolean supports(Key<?> key) {
 
     @Override
     public Set<Key<?>> getKeys() {
+        final DataHolderKeyIndex keyIndex = SpongeDataManager.getInstance().getKeyIndex();
+        if (keyIndex != null) {
+            return keyIndex.getKeys(this);
+        }
         return getContainers().stream().flatMap(container -> container.getKeys().stream()).collect(Collectors.toSet());
     }
 
     @Override
     public Set<ImmutableValue<?>> getValues() {
+        final DataHolderKeyIndex keyIndex = SpongeDataManager.getInstance().getKeyIndex();
+        if (keyIndex != null) {
+            return keyIndex.getValues(this);
+        }
         return getContainers().stream().flatMap(container -> container.getValues().stream()).collect(Collectors.toSet());
     }
 
@@ -72,6 +72,9 @@ public abstract class MixinEntityItem extends MixinEntity implements Item, IMixi
     @Shadow private int delayBeforeCanPickup;
     @Shadow private int age;
     @Shadow public abstract ItemStack getEntityItem();
+    @Shadow private boolean combineItems(EntityItem other) {
+        return false; // Shadowed
+    }
     /**
      * A simple cached value of the merge radius for this item.
      * Since the value is configurable, the first time searching for
@@ -108,6 +111,11 @@ private double getSearchRadius(double originalRadius) {
         return this.cachedRadius;
     }
 
+    @Override
+    public boolean combineWith(EntityItem other) {
+        return this.combineItems(other);
+    }
+
     @Override
     public int getPickupDelay() {
         return this.infinitePickupDelay ? this.previousPickupDelay : this.delayBeforeCanPickup;
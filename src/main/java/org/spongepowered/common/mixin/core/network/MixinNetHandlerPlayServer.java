@@ -26,6 +26,7 @@
 
 import com.flowpowered.math.vector.Vector3d;
 import com.google.common.collect.Lists;
+import io.netty.buffer.ByteBuf;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityItem;
@@ -47,6 +48,7 @@
 import net.minecraft.network.play.client.CPacketUpdateSign;
 import net.minecraft.network.play.client.CPacketUseEntity;
 import net.minecraft.network.play.client.CPacketVehicleMove;
+import net.minecraft.network.play.server.SPacketChat;
 import net.minecraft.network.play.server.SPacketPlayerListItem;
 import net.minecraft.network.play.server.SPacketPlayerPosLook;
 import net.minecraft.network.play.server.SPacketSetSlot;
@@ -83,6 +85,7 @@
 import org.spongepowered.api.resourcepack.ResourcePack;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.channel.MessageChannel;
+import org.spongepowered.api.text.chat.ChatTypes;
 import org.spongepowered.api.world.Location;
 import org.spongepowered.api.world.World;
 import org.spongepowered.asm.mixin.Final;
@@ -109,6 +112,7 @@
 import org.spongepowered.common.interfaces.entity.player.IMixinEntityPlayerMP;
 import org.spongepowered.common.interfaces.network.IMixinNetHandlerPlayServer;
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
+import org.spongepowered.common.network.PacketBroadcaster;
 import org.spongepowered.common.text.SpongeTexts;
 import org.spongepowered.common.util.VecHelper;
 import org.spongepowered.common.world.WorldManager;
@@ -246,6 +250,31 @@ public void onSendPacket(NetworkManager manager, Packet<?> packet) {
         manager.sendPacket(this.rewritePacket(packet));
     }
 
+    @Override
+    public boolean sendEncodedPacket(Packet<?> packet, ByteBuf encoded) {
+        if (!this.canReceivePacket(packet)) {
+            return true;
+        }
+        // These packets are handled per connection in rewritePacket
+        if (packet instanceof SPacketPlayerListItem || packet instanceof IMixinPacketResourcePackSend) {
+            return false;
+        }
+        return ((IMixinNetworkManager) this.netManager).sendEncodedPacket(encoded);
+    }
+
+    private boolean canReceivePacket(Packet<?> packet) {
+        // The same filters as sendPacket, the encoded broadcast packets bypass them
+        if (packet instanceof SPacketChat) {
+            final EntityPlayer.EnumChatVisibility visibility =
+                    (EntityPlayer.EnumChatVisibility) (Object) ((Player) this.playerEntity).getChatVisibility();
+            if (visibility == EntityPlayer.EnumChatVisibility.HIDDEN
+                    || visibility == EntityPlayer.EnumChatVisibility.SYSTEM && !((SPacketChat) packet).isSystem()) {
+                return false;
+            }
+        }
+        return this.allowClientLocationUpdate || !(packet instanceof SPacketPlayerPosLook);
+    }
+
     /**
      * This method wraps packets being sent to perform any additional actions,
      * such as rewriting data in the packet.
@@ -514,7 +543,7 @@ public void onDisconnectHandler(PlayerList this$0, ITextComponent component) {
         );
         SpongeImpl.postEvent(event);
         if (!event.isMessageCancelled()) {
-            event.getChannel().ifPresent(channel -> channel.send(player, event.getMessage()));
+            event.getChannel().ifPresent(channel -> PacketBroadcaster.sendMessage(channel, player, event.getMessage(), ChatTypes.SYSTEM));
         }
     }
 
@@ -24,32 +24,58 @@
  */
 package org.spongepowered.common.mixin.core.network;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.local.LocalAddress;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+import net.minecraft.network.EnumConnectionState;
 import net.minecraft.network.NetworkManager;
+import net.minecraft.network.Packet;
+import net.minecraft.util.text.ITextComponent;
 import org.spongepowered.api.MinecraftVersion;
 import org.spongepowered.api.network.RemoteConnection;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Overwrite;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.SpongeMinecraftVersion;
 import org.spongepowered.common.interfaces.IMixinNetworkManager;
+import org.spongepowered.common.network.PacketFlushCoalescer;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.UnknownHostException;
+import java.util.Queue;
+
+import javax.annotation.Nullable;
 
 @SuppressWarnings("rawtypes")
 @Mixin(NetworkManager.class)
 public abstract class MixinNetworkManager extends SimpleChannelInboundHandler implements RemoteConnection, IMixinNetworkManager {
 
+    @Shadow @Final public static AttributeKey<EnumConnectionState> PROTOCOL_ATTRIBUTE_KEY;
+
     @Shadow private Channel channel;
+    @Shadow @Final private Queue<?> outboundPacketsQueue;
 
     @Shadow public abstract SocketAddress getRemoteAddress();
+    @Shadow public abstract boolean isChannelOpen();
+    @Shadow private void flushOutboundQueue() {}
+    @Shadow public abstract void setConnectionState(EnumConnectionState newState);
 
     private InetSocketAddress virtualHost;
     private MinecraftVersion version;
+    private boolean flushPending;
 
     private static final InetSocketAddress localhost = InetSocketAddress.createUnresolved("127.0.0.1", 0);
 
@@ -93,4 +119,91 @@ public MinecraftVersion getVersion() {
     public void setVersion(int version) {
         this.version = new SpongeMinecraftVersion(String.valueOf(version), version);
     }
+
+    @Override
+    public boolean sendEncodedPacket(ByteBuf encoded) {
+        if (!this.isChannelOpen() || this.channel.attr(PROTOCOL_ATTRIBUTE_KEY).get() != EnumConnectionState.PLAY) {
+            return false;
+        }
+        this.flushOutboundQueue();
+        if (!this.outboundPacketsQueue.isEmpty()) {
+            // Keep the packet order intact, queued packets have to go first
+            return false;
+        }
+        // Only present on remote connections, the local channel passes packet objects
+        final ChannelHandlerContext encoder = this.channel.pipeline().context("encoder");
+        if (encoder == null) {
+            return false;
+        }
+        if (PacketFlushCoalescer.canDeferFlush()) {
+            PacketFlushCoalescer.markDirty((NetworkManager) (Object) this);
+            encoder.write(encoded.duplicate().retain()).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            PacketFlushCoalescer.onPacketWritten(false);
+        } else {
+            encoder.writeAndFlush(encoded.duplicate().retain()).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            PacketFlushCoalescer.onPacketWritten(true);
+        }
+        return true;
+    }
+
+    /**
+     * @author SpongePowered
+     * @reason Packets sent from the main thread are written without flushing
+     * the channel, the channel is flushed once at the end of the tick by
+     * {@link PacketFlushCoalescer}.
+     *
+     * @param inPacket The packet to send
+     * @param futureListeners The listeners of the write future
+     */
+    @Overwrite
+    private void dispatchPacket(final Packet<?> inPacket, @Nullable final GenericFutureListener<? extends Future<? super Void>>[] futureListeners) {
+        final EnumConnectionState packetState = EnumConnectionState.getFromPacket(inPacket);
+        final EnumConnectionState currentState = this.channel.attr(PROTOCOL_ATTRIBUTE_KEY).get();
+
+        if (currentState != packetState) {
+            this.channel.config().setAutoRead(false);
+        }
+
+        if (this.channel.eventLoop().inEventLoop()) {
+            this.writePacket(inPacket, packetState, currentState, futureListeners, true);
+        } else {
+            final boolean flush = currentState != packetState || !PacketFlushCoalescer.canDeferFlush(inPacket, futureListeners != null);
+            if (!flush) {
+                PacketFlushCoalescer.markDirty((NetworkManager) (Object) this);
+            }
+            this.channel.eventLoop().execute(() -> this.writePacket(inPacket, packetState, currentState, futureListeners, flush));
+        }
+    }
+
+    private void writePacket(Packet<?> inPacket, EnumConnectionState packetState, EnumConnectionState currentState,
+            @Nullable GenericFutureListener<? extends Future<? super Void>>[] futureListeners, boolean flush) {
+        if (packetState != currentState) {
+            this.setConnectionState(packetState);
+        }
+
+        final ChannelFuture channelFuture = flush ? this.channel.writeAndFlush(inPacket) : this.channel.write(inPacket);
+        if (futureListeners != null) {
+            channelFuture.addListeners(futureListeners);
+        }
+        channelFuture.addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        PacketFlushCoalescer.onPacketWritten(flush);
+    }
+
+    @Inject(method = "closeChannel", at = @At("HEAD"))
+    private void onCloseChannel(ITextComponent message, CallbackInfo ci) {
+        // Send everything that was written before closing
+        if (this.flushPending && this.channel.isOpen()) {
+            this.channel.flush();
+        }
+    }
+
+    @Override
+    public boolean isFlushPending() {
+        return this.flushPending;
+    }
+
+    @Override
+    public void setFlushPending(boolean flushPending) {
+        this.flushPending = flushPending;
+    }
 }
@@ -27,6 +27,7 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import co.aikar.timings.TickSpikeRecorder;
 import co.aikar.timings.TimingsManager;
 import com.google.common.collect.ImmutableList;
 import net.minecraft.command.ICommandSender;
@@ -63,6 +64,7 @@
 import org.spongepowered.api.resourcepack.ResourcePack;
 import org.spongepowered.api.scoreboard.Scoreboard;
 import org.spongepowered.api.service.permission.PermissionService;
+import org.spongepowered.api.service.sql.SqlService;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.channel.MessageChannel;
 import org.spongepowered.api.util.Tristate;
@@ -89,6 +91,7 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.entity.player.UserSaveQueue;
 import org.spongepowered.common.event.SpongeCommonEventFactory;
 import org.spongepowered.common.event.tracking.CauseTracker;
 import org.spongepowered.common.event.tracking.PhaseContext;
@@ -99,11 +102,16 @@
 import org.spongepowered.common.interfaces.IMixinSubject;
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
 import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
+import org.spongepowered.common.network.PacketFlushCoalescer;
 import org.spongepowered.common.profile.SpongeProfileManager;
 import org.spongepowered.common.resourcepack.SpongeResourcePack;
+import org.spongepowered.common.service.sql.SqlServiceImpl;
+import org.spongepowered.common.service.user.UserIndex;
 import org.spongepowered.common.text.SpongeTexts;
+import org.spongepowered.common.util.SpongeUsernameCache;
 import org.spongepowered.common.world.WorldManager;
 import org.spongepowered.common.world.storage.SpongeChunkLayout;
+import org.spongepowered.common.world.storage.SpongePlayerDataHandler;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -307,6 +315,24 @@ public void onServerStopping(CallbackInfo ci) {
         ((MinecraftServer) (Object) this).getPlayerProfileCache().save();
     }
 
+    @Inject(method = "stopServer()V", at = @At("RETURN"))
+    public void onServerStopped(CallbackInfo ci) {
+        // Make sure all offline users, player data and usernames are written before the server exits
+        UserSaveQueue.awaitAll();
+        SpongePlayerDataHandler.awaitPendingWrites();
+        SpongeUsernameCache.awaitPendingWrites();
+        UserIndex.clear();
+        // Run the statements plugins queued while stopping and close the pools
+        final Optional<SqlService> sqlService = Sponge.getServiceManager().provide(SqlService.class);
+        if (sqlService.isPresent() && sqlService.get() instanceof SqlServiceImpl) {
+            try {
+                ((SqlServiceImpl) sqlService.get()).close();
+            } catch (IOException e) {
+                SpongeImpl.getLogger().error("Failed to close the sql service!", e);
+            }
+        }
+    }
+
     /**
      * @author blood - December 23rd, 2015
      * @author Zidane - March 13th, 2016
@@ -574,7 +600,10 @@ public EntityTracker onUpdateTimeLightAndEntitiesGetEntityTracker(WorldServer wo
 
     @Inject(method = "tick", at = @At(value = "HEAD"))
     public void onServerTickStart(CallbackInfo ci) {
+        TickSpikeRecorder.onTickStart();
         TimingsManager.FULL_SERVER_TICK.startTiming();
+        // Packets sent between ticks
+        PacketFlushCoalescer.flushAll();
     }
 
     @Inject(method = "tick", at = @At(value = "RETURN"))
@@ -585,17 +614,16 @@ public void onServerTickEnd(CallbackInfo ci) {
         if (SpongeCommonEventFactory.lastAnimationPlayer != null) {
             EntityPlayerMP player = SpongeCommonEventFactory.lastAnimationPlayer.get();
             if (player != null && lastAnimTick != lastPrimaryTick && lastAnimTick != lastSecondaryTick && lastAnimTick != 0 && lastAnimTick - lastPrimaryTick > 3 && lastAnimTick - lastSecondaryTick > 3) {
-                if (player.getHeldItemMainhand() != null) {
-                    if (SpongeCommonEventFactory.callInteractItemEventPrimary(player, player.getHeldItemMainhand(), EnumHand.MAIN_HAND, Optional.empty(), BlockSnapshot.NONE).isCancelled()) {
-                        SpongeCommonEventFactory.lastAnimationPacketTick = 0;
-                        return;
-                    }
+                if (player.getHeldItemMainhand() == null
+                        || !SpongeCommonEventFactory.callInteractItemEventPrimary(player, player.getHeldItemMainhand(), EnumHand.MAIN_HAND, Optional.empty(), BlockSnapshot.NONE).isCancelled()) {
+                    SpongeCommonEventFactory.callInteractBlockEventPrimary(player, EnumHand.MAIN_HAND);
                 }
-    
-                SpongeCommonEventFactory.callInteractBlockEventPrimary(player, EnumHand.MAIN_HAND);
             }
         }
         SpongeCommonEventFactory.lastAnimationPacketTick = 0;
+        PacketFlushCoalescer.flushAll();
+        // Before the timings process the tick
+        TickSpikeRecorder.onTickEnd();
         TimingsManager.FULL_SERVER_TICK.stopTiming();
     }
 
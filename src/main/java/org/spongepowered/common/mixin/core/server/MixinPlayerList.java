@@ -87,6 +87,7 @@
 import org.spongepowered.api.service.permission.PermissionService;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.channel.MessageChannel;
+import org.spongepowered.api.text.chat.ChatTypes;
 import org.spongepowered.api.util.annotation.NonnullByDefault;
 import org.spongepowered.api.world.Dimension;
 import org.spongepowered.api.world.Location;
@@ -105,6 +106,7 @@
 import org.spongepowered.common.SpongeImplHooks;
 import org.spongepowered.common.entity.EntityUtil;
 import org.spongepowered.common.entity.player.SpongeUser;
+import org.spongepowered.common.entity.player.UserSaveQueue;
 import org.spongepowered.common.event.tracking.CauseTracker;
 import org.spongepowered.common.event.tracking.PhaseContext;
 import org.spongepowered.common.event.tracking.phase.PlayerPhase;
@@ -117,6 +119,8 @@
 import org.spongepowered.common.interfaces.world.IMixinWorldProvider;
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
 import org.spongepowered.common.service.permission.SpongePermissionService;
+import org.spongepowered.common.service.user.UserIndex;
+import org.spongepowered.common.network.PacketBroadcaster;
 import org.spongepowered.common.text.SpongeTexts;
 import org.spongepowered.common.util.VecHelper;
 import org.spongepowered.common.world.WorldManager;
@@ -124,6 +128,7 @@
 
 import java.net.SocketAddress;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -140,6 +145,8 @@ public abstract class MixinPlayerList implements IMixinPlayerList {
     private static final String
             SERVER_SEND_PACKET_TO_ALL_PLAYERS =
             "Lnet/minecraft/server/management/PlayerList;sendPacketToAllPlayers(Lnet/minecraft/network/Packet;)V";
+    // Player list entries carry the game profile properties, which can be large
+    private static final int MAX_PLAYER_LIST_ENTRIES = 256;
     @Shadow @Final private static Logger LOG;
     @Shadow @Final private MinecraftServer mcServer;
     @Shadow @Final public Map<UUID, EntityPlayerMP> uuidToPlayerMap;
@@ -203,6 +210,8 @@ public void initializeConnectionToPlayer(NetworkManager netManager, EntityPlayer
         if (SpongeUser.dirtyUsers.contains(user)) {
             user.save();
         }
+        UserSaveQueue.await(playerIn.getUniqueID());
+        UserIndex.add(gameprofile);
         // Sponge end
 
         NBTTagCompound nbttagcompound = this.readPlayerDataFromFile(playerIn);
@@ -401,7 +410,7 @@ public void initializeConnectionToPlayer(NetworkManager netManager, EntityPlayer
         SpongeImpl.postEvent(event);
         // Send to the channel
         if (!event.isMessageCancelled()) {
-            event.getChannel().ifPresent(channel -> channel.send(player, event.getMessage()));
+            event.getChannel().ifPresent(channel -> PacketBroadcaster.sendMessage(channel, player, event.getMessage(), ChatTypes.SYSTEM));
         }
         // Sponge end
     }
@@ -819,26 +828,33 @@ private void onPlayerRemoveFromWorldFromDisconnect(WorldServer world, Entity pla
 
     @Inject(method = "saveAllPlayerData()V", at = @At("RETURN"))
     private void onSaveAllPlayerData(CallbackInfo ci) {
-        for (SpongeUser user : SpongeUser.dirtyUsers) {
-            user.save();
-        }
+        SpongeUser.saveDirtyUsers();
     }
 
     @Inject(method = "playerLoggedIn", at = @At(value = "INVOKE", target = SERVER_SEND_PACKET_TO_ALL_PLAYERS, shift = At.Shift.BEFORE), cancellable = true)
     public void playerLoggedIn2(EntityPlayerMP player, CallbackInfo ci) {
-        // Create a packet to be used for players without context data
-        SPacketPlayerListItem noSpecificViewerPacket = new SPacketPlayerListItem(SPacketPlayerListItem.Action.ADD_PLAYER, player);
-
+        final List<EntityPlayerMP> viewers = new ArrayList<>(this.playerEntityList.size());
+        final List<EntityPlayerMP> visiblePlayers = new ArrayList<>(this.playerEntityList.size());
         for (EntityPlayerMP viewer : this.playerEntityList) {
             if (((Player) viewer).canSee((Player) player)) {
-                viewer.connection.sendPacket(noSpecificViewerPacket);
+                viewers.add(viewer);
             }
 
-            if (((Player) player).canSee((Player) viewer)) {
-                player.connection.sendPacket(new SPacketPlayerListItem(SPacketPlayerListItem.Action.ADD_PLAYER, viewer));
+            // The player receives its own entry as a viewer
+            if (viewer != player && ((Player) player).canSee((Player) viewer)) {
+                visiblePlayers.add(viewer);
             }
         }
 
+        // Create a packet to be used for players without context data, it's encoded once for all viewers
+        PacketBroadcaster.sendToAll(new SPacketPlayerListItem(SPacketPlayerListItem.Action.ADD_PLAYER, player), viewers);
+
+        // Send the joining player all visible players at once, split to stay below the packet size limit
+        for (int i = 0; i < visiblePlayers.size(); i += MAX_PLAYER_LIST_ENTRIES) {
+            final List<EntityPlayerMP> entries = visiblePlayers.subList(i, Math.min(i + MAX_PLAYER_LIST_ENTRIES, visiblePlayers.size()));
+            player.connection.sendPacket(new SPacketPlayerListItem(SPacketPlayerListItem.Action.ADD_PLAYER, entries));
+        }
+
         // Spawn player into level
         WorldServer level = this.mcServer.worldServerForDimension(player.dimension);
         // TODO direct this appropriately
@@ -52,6 +52,7 @@
 import org.spongepowered.common.interfaces.server.management.IMixinPlayerProfileCacheEntry;
 import org.spongepowered.common.profile.callback.MapProfileLookupCallback;
 import org.spongepowered.common.profile.callback.SingleProfileLookupCallback;
+import org.spongepowered.common.service.user.UserIndex;
 import org.spongepowered.common.util.SpongeUsernameCache;
 
 import java.util.Collection;
@@ -83,6 +84,7 @@ public abstract class MixinPlayerProfileCache implements IMixinPlayerProfileCach
     @Inject(method = "addEntry(Lcom/mojang/authlib/GameProfile;Ljava/util/Date;)V", at = @At(value = "RETURN"))
     public void onAddEntry(com.mojang.authlib.GameProfile profile, Date date, CallbackInfo ci) {
         SpongeUsernameCache.setUsername(profile.getId(), profile.getName());
+        UserIndex.update(profile);
     }
 
     @Redirect(method = "addEntry(Lcom/mojang/authlib/GameProfile;Ljava/util/Date;)V", at = @At(value = "INVOKE", target = "Ljava/util/Deque;remove(Ljava/lang/Object;)Z", remap = false))
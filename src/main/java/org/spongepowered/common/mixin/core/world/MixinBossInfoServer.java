@@ -33,26 +33,42 @@
 import org.spongepowered.api.boss.ServerBossBar;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.text.Text;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Implements;
 import org.spongepowered.asm.mixin.Interface;
 import org.spongepowered.asm.mixin.Intrinsic;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Overwrite;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.common.network.PacketBroadcaster;
 
 import java.util.Collection;
+import java.util.Set;
 
 @Implements(@Interface(iface = ServerBossBar.class, prefix = "sbar$"))
 @Mixin(BossInfoServer.class)
 @SuppressWarnings("WeakerAccess")
 public abstract class MixinBossInfoServer extends MixinBossInfo {
 
+    @Shadow @Final private Set<EntityPlayerMP> players;
     @Shadow private boolean visible;
     @Shadow public abstract void addPlayer(EntityPlayerMP player);
     @Shadow public abstract void removePlayer(EntityPlayerMP player);
     @Shadow public abstract void setVisible(boolean visibleIn);
     @Shadow public abstract Collection<EntityPlayerMP> getPlayers();
-    @Shadow private void sendUpdate(SPacketUpdateBossInfo.Operation operation) {
-    };
+
+    /**
+     * @author SpongePowered
+     * @reason Encode the update once for all players viewing the bar
+     *
+     * @param operation The update operation
+     */
+    @Overwrite
+    private void sendUpdate(SPacketUpdateBossInfo.Operation operation) {
+        if (this.visible) {
+            PacketBroadcaster.sendToAll(new SPacketUpdateBossInfo(operation, (BossInfo) (Object) this), this.players);
+        }
+    }
 
     public ServerBossBar sbar$setName(Text name) {
         if (this.name != name) {
@@ -26,8 +26,6 @@
 
 import com.flowpowered.math.vector.Vector3d;
 import com.google.common.collect.Sets;
-import net.minecraft.block.material.Material;
-import net.minecraft.block.state.IBlockState;
 import net.minecraft.enchantment.EnchantmentProtection;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
@@ -55,11 +53,13 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.entity.EntityUtil;
+import org.spongepowered.common.event.InternalNamedCauses;
 import org.spongepowered.common.event.tracking.CauseTracker;
 import org.spongepowered.common.event.tracking.PhaseData;
 import org.spongepowered.common.interfaces.world.IMixinExplosion;
 import org.spongepowered.common.interfaces.world.IMixinLocation;
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
+import org.spongepowered.common.world.ExplosionRays;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -78,6 +78,7 @@ public abstract class MixinExplosion implements Explosion, IMixinExplosion {
     private boolean shouldBreakBlocks;
     private boolean shouldDamageEntities;
     private Cause createdCause;
+    private int mergeCount = 1;
 
     @Shadow @Final private List<BlockPos> affectedBlockPositions;
     @Shadow @Final private Map<EntityPlayer, Vec3d> playerKnockbackMap;
@@ -135,6 +136,9 @@ public Cause createCause() {
         } else if (igniter != null) {
             builder.named(NamedCause.of("Igniter", igniter));
         }
+        if (this.mergeCount > 1) {
+            builder.named(NamedCause.of(InternalNamedCauses.General.MERGED_EXPLOSIONS, this.mergeCount));
+        }
         if (CauseTracker.ENABLED) {
             final PhaseData phaseData = ((IMixinWorldServer) this.world).getCauseTracker().getCurrentPhaseData();
             phaseData.state.getPhase().appendExplosionCause(phaseData);
@@ -162,49 +166,9 @@ public void doExplosionA() {
         if (this.shouldBreakBlocks) {
             // Sponge End
             Set<BlockPos> set = Sets.<BlockPos>newHashSet();
-            int i = 16;
-
-            for (int j = 0; j < 16; ++j) {
-                for (int k = 0; k < 16; ++k) {
-                    for (int l = 0; l < 16; ++l) {
-                        if (j == 0 || j == 15 || k == 0 || k == 15 || l == 0 || l == 15) {
-                            double d0 = (double) ((float) j / 15.0F * 2.0F - 1.0F);
-                            double d1 = (double) ((float) k / 15.0F * 2.0F - 1.0F);
-                            double d2 = (double) ((float) l / 15.0F * 2.0F - 1.0F);
-                            double d3 = Math.sqrt(d0 * d0 + d1 * d1 + d2 * d2);
-                            d0 = d0 / d3;
-                            d1 = d1 / d3;
-                            d2 = d2 / d3;
-                            float f = this.explosionSize * (0.7F + this.world.rand.nextFloat() * 0.6F);
-                            double d4 = this.explosionX;
-                            double d6 = this.explosionY;
-                            double d8 = this.explosionZ;
-
-                            for (float f1 = 0.3F; f > 0.0F; f -= 0.22500001F) {
-                                BlockPos blockpos = new BlockPos(d4, d6, d8);
-                                IBlockState iblockstate = this.world.getBlockState(blockpos);
-
-                                if (iblockstate.getMaterial() != Material.AIR) {
-                                    float f2 = this.exploder != null
-                                               ? this.exploder.getExplosionResistance((net.minecraft.world.Explosion) (Object) this
-                                            , this.world, blockpos, iblockstate)
-                                               : iblockstate.getBlock().getExplosionResistance((Entity) null);
-                                    f -= (f2 + 0.3F) * 0.3F;
-                                }
-
-                                if (f > 0.0F && (this.exploder == null || this.exploder
-                                        .verifyExplosion((net.minecraft.world.Explosion) (Object) this, this.world, blockpos, iblockstate, f))) {
-                                    set.add(blockpos);
-                                }
-
-                                d4 += d0 * 0.30000001192092896D;
-                                d6 += d1 * 0.30000001192092896D;
-                                d8 += d2 * 0.30000001192092896D;
-                            }
-                        }
-                    }
-                }
-            }
+            // Sponge - Cast the rays with precomputed directions and look up each block only once
+            ExplosionRays.collectAffectedBlocks((net.minecraft.world.Explosion) (Object) this, this.world, this.exploder, this.explosionX,
+                    this.explosionY, this.explosionZ, this.explosionSize, set);
 
             this.affectedBlockPositions.addAll(set);
         } // Sponge - Finish if statement
@@ -283,6 +247,9 @@ public void doExplosionA() {
                             d11 = EnchantmentProtection.getBlastDamageReduction((EntityLivingBase) entity, d10);
                         }
 
+                        // Sponge - Apply the impulse of every explosion merged into this one
+                        d11 *= this.mergeCount;
+                        d10 *= this.mergeCount;
                         entity.motionX += d5 * d11;
                         entity.motionY += d7 * d11;
                         entity.motionZ += d9 * d11;
@@ -354,4 +321,14 @@ public void setShouldBreakBlocks(boolean shouldBreakBlocks) {
     public void setShouldDamageEntities(boolean shouldDamageEntities) {
         this.shouldDamageEntities = shouldDamageEntities;
     }
+
+    @Override
+    public int getMergeCount() {
+        return this.mergeCount;
+    }
+
+    @Override
+    public void setMergeCount(int mergeCount) {
+        this.mergeCount = mergeCount;
+    }
 }
@@ -25,8 +25,10 @@
 package org.spongepowered.common.mixin.core.world;
 
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.network.Packet;
 import net.minecraft.network.play.server.SPacketCustomSound;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.management.PlayerList;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.world.DimensionType;
 import net.minecraft.world.ServerWorldEventHandler;
@@ -38,6 +40,7 @@
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.common.interfaces.world.IMixinServerWorldEventHandler;
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
+import org.spongepowered.common.network.PacketBroadcaster;
 
 import javax.annotation.Nullable;
 
@@ -52,6 +55,13 @@ private int getDimensionForPlayingSound(DimensionType dimensionType) {
         return ((IMixinWorldServer) this.world).getDimensionId();
     }
 
+    @Redirect(method = "playSoundToAllNearExcept", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/management/PlayerList;sendToAllNearExcept"
+            + "(Lnet/minecraft/entity/player/EntityPlayer;DDDDILnet/minecraft/network/Packet;)V"))
+    private void broadcastSound(PlayerList playerList, @Nullable EntityPlayer except, double x, double y, double z, double radius, int dimension,
+            Packet<?> packet) {
+        PacketBroadcaster.sendToAllNearExcept(except, x, y, z, radius, dimension, packet);
+    }
+
     @Redirect(method = "playEvent", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/DimensionType;getId()I"), expect = 0, require = 0)
     private int getDimensionForSoundEffects(DimensionType dimensionType) {
         return ((IMixinWorldServer) this.world).getDimensionId();
@@ -60,7 +70,7 @@ private int getDimensionForSoundEffects(DimensionType dimensionType) {
     @Override
     public void playCustomSoundToAllNearExcept(@Nullable EntityPlayer player, String soundIn, SoundCategory category, double x, double y, double z,
             float volume, float pitch) {
-        this.mcServer.getPlayerList().sendToAllNearExcept(player, x, y, z, volume > 1.0F ? (double)(16.0F * volume) : 16.0D,
+        PacketBroadcaster.sendToAllNearExcept(player, x, y, z, volume > 1.0F ? (double)(16.0F * volume) : 16.0D,
                 ((IMixinWorldServer) this.world).getDimensionId(), new SPacketCustomSound(soundIn, category, x, y, z, volume, pitch));
     }
 }
@@ -39,6 +39,8 @@
 import net.minecraft.block.ITileEntityProvider;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.effect.EntityLightningBolt;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.item.EntityTNTPrimed;
 import net.minecraft.entity.passive.EntitySkeletonHorse;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -50,7 +52,6 @@
 import net.minecraft.profiler.Profiler;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.management.PlayerChunkMap;
-import net.minecraft.server.management.PlayerList;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.IProgressUpdate;
 import net.minecraft.util.ITickable;
@@ -170,10 +171,13 @@
 import org.spongepowered.common.interfaces.world.gen.IPopulatorProvider;
 import org.spongepowered.common.mixin.plugin.entityactivation.interfaces.IModData_Activation;
 import org.spongepowered.common.mixin.plugin.entitycollisions.interfaces.IModData_Collisions;
+import org.spongepowered.common.network.PacketBroadcaster;
 import org.spongepowered.common.registry.provider.DirectionFacingProvider;
 import org.spongepowered.common.registry.type.event.InternalSpawnTypes;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.VecHelper;
+import org.spongepowered.common.world.ExplosionCoalescer;
+import org.spongepowered.common.world.ItemMergeGrid;
 import org.spongepowered.common.world.WorldManager;
 import org.spongepowered.common.world.border.PlayerBorderListener;
 import org.spongepowered.common.world.gen.SpongeChunkGenerator;
@@ -186,6 +190,7 @@
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -211,6 +216,11 @@ public abstract class MixinWorldServer extends MixinWorld implements IMixinWorld
 
     private final CauseTracker causeTracker = new CauseTracker((WorldServer) (Object) this);
     private final Map<net.minecraft.entity.Entity, Vector3d> rotationUpdates = new HashMap<>();
+    private final ExplosionCoalescer explosionCoalescer = new ExplosionCoalescer();
+    @Nullable private ExplosionCoalescer.Pending flushingExplosion;
+    // Explosions are only queued while the entities are updated, the queue is flushed right after
+    private boolean updatingEntities;
+    private final ItemMergeGrid itemMergeGrid = new ItemMergeGrid((WorldServer) (Object) this);
     private SpongeChunkGenerator spongegen;
     private SpongeConfig<?> activeConfig;
     protected long weatherStartTime;
@@ -708,7 +718,46 @@ public void updateEntities() {
         } else {
             this.provider.onWorldUpdateEntities();
         }
-        super.updateEntities();
+        this.updatingEntities = true;
+        try {
+            super.updateEntities();
+        } finally {
+            this.updatingEntities = false;
+        }
+        // Sponge - Perform the explosions merged while updating the entities
+        if (!this.explosionCoalescer.isEmpty()) {
+            this.performQueuedExplosions();
+        }
+        // Sponge - Merge the items that searched for other items while updating
+        if (!this.itemMergeGrid.isEmpty()) {
+            this.timings.itemMerge.startTiming();
+            this.itemMergeGrid.mergeQueued();
+            this.timings.itemMerge.stopTiming();
+        }
+    }
+
+    @Override
+    public void queueItemMerge(EntityItem item) {
+        this.itemMergeGrid.queue(item);
+    }
+
+    @Override
+    public void updateItemMergePosition(EntityItem item) {
+        this.itemMergeGrid.move(item);
+    }
+
+    @Inject(method = "onEntityAdded", at = @At("HEAD"))
+    private void onEntityAddedTrackItem(net.minecraft.entity.Entity entityIn, CallbackInfo ci) {
+        if (entityIn instanceof EntityItem) {
+            this.itemMergeGrid.add((EntityItem) entityIn);
+        }
+    }
+
+    @Inject(method = "onEntityRemoved", at = @At("HEAD"))
+    private void onEntityRemovedTrackItem(net.minecraft.entity.Entity entityIn, CallbackInfo ci) {
+        if (entityIn instanceof EntityItem) {
+            this.itemMergeGrid.remove((EntityItem) entityIn);
+        }
     }
 
     @Redirect(method = "updateBlockTick", at = @At(value = "INVOKE", target="Lnet/minecraft/block/Block;updateTick(Lnet/minecraft/world/World;Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/state/IBlockState;Ljava/util/Random;)V"))
@@ -1469,22 +1518,26 @@ public SpongeBlockSnapshot createSpongeBlockSnapshot(IBlockState state, IBlockSt
     @Override
     public Explosion newExplosion(@Nullable net.minecraft.entity.Entity entityIn, double x, double y, double z, float strength, boolean isFlaming,
             boolean isSmoking) {
+        // Sponge Start - Merge stacked TNT exploding while the entities are updated, the queued explosions are performed right after
+        if (this.updatingEntities && this.flushingExplosion == null && entityIn instanceof EntityTNTPrimed
+                && SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useExplosionCoalescing()) {
+            return this.queueExplosion(entityIn, x, y, z, strength, isFlaming, isSmoking);
+        }
+        // Sponge End
         // Sponge Start - Cause tracking
         this.processingExplosion = true;
         if (CauseTracker.ENABLED) {
-            final PhaseContext phaseContext = PhaseContext.start()
-                    .explosion()
-                    .addEntityCaptures()
-                    .addEntityDropCaptures()
-                    .addBlockCaptures();
-            final PhaseData currentPhaseData = this.causeTracker.getCurrentPhaseData();
-            currentPhaseData.state.getPhase().appendContextPreExplosion(phaseContext, currentPhaseData);
-            phaseContext.complete();
+            final PhaseContext phaseContext = this.flushingExplosion != null && this.flushingExplosion.getContext() != null
+                    ? this.flushingExplosion.getContext()
+                    : this.createExplosionContext();
             this.causeTracker.switchToPhase(GeneralPhase.State.EXPLOSION, phaseContext);
         }
         // Sponge End
 
-        Explosion explosion = new Explosion((WorldServer) (Object) this, entityIn, x, y, z, strength, isFlaming, isSmoking);
+        Explosion explosion = this.flushingExplosion != null
+                ? this.flushingExplosion.getExplosion()
+                : new Explosion((WorldServer) (Object) this, entityIn, x, y, z, strength, isFlaming, isSmoking);
+        this.flushingExplosion = null; // Sponge - Explosions created while this one is processed are not part of the flush
 
         // Sponge Start - More cause tracking
         if (CauseTracker.ENABLED) {
@@ -1529,6 +1582,43 @@ public Explosion newExplosion(@Nullable net.minecraft.entity.Entity entityIn, do
         return explosion;
     }
 
+    private PhaseContext createExplosionContext() {
+        final PhaseContext phaseContext = PhaseContext.start()
+                .explosion()
+                .addEntityCaptures()
+                .addEntityDropCaptures()
+                .addBlockCaptures();
+        final PhaseData currentPhaseData = this.causeTracker.getCurrentPhaseData();
+        currentPhaseData.state.getPhase().appendContextPreExplosion(phaseContext, currentPhaseData);
+        phaseContext.complete();
+        return phaseContext;
+    }
+
+    private Explosion queueExplosion(net.minecraft.entity.Entity entityIn, double x, double y, double z, float strength, boolean isFlaming,
+            boolean isSmoking) {
+        final Explosion merged = this.explosionCoalescer.merge(x, y, z, strength, isFlaming, isSmoking);
+        if (merged != null) {
+            return merged;
+        }
+        final Explosion explosion = new Explosion((WorldServer) (Object) this, entityIn, x, y, z, strength, isFlaming, isSmoking);
+        // The context is created now so that the explosion keeps the source and owner of the phase it was created in
+        this.explosionCoalescer.queue(explosion, entityIn, x, y, z, strength, isFlaming, isSmoking, CauseTracker.ENABLED ? this.createExplosionContext() : null);
+        return explosion;
+    }
+
+    private void performQueuedExplosions() {
+        for (ExplosionCoalescer.Pending pending : this.explosionCoalescer.drain()) {
+            final Explosion explosion = pending.getExplosion();
+            this.flushingExplosion = pending;
+            try {
+                newExplosion(pending.getExploder(), explosion.explosionX, explosion.explosionY, explosion.explosionZ, explosion.explosionSize,
+                        explosion.isFlaming, explosion.isSmoking);
+            } finally {
+                this.flushingExplosion = null;
+            }
+        }
+    }
+
     /**
      * @author amaranth - April 25th, 2016
      * @reason Avoid 25 chunk map lookups per entity per tick by using neighbor pointers
@@ -1790,26 +1880,42 @@ public void spawnParticles(ParticleEffect particleEffect, Vector3d position) {
 
     @Override
     public void spawnParticles(ParticleEffect particleEffect, Vector3d position, int radius) {
-        checkNotNull(particleEffect, "The particle effect cannot be null!");
         checkNotNull(position, "The position cannot be null");
-        checkArgument(radius > 0, "The radius has to be greater then zero!");
-
-        List<Packet<?>> packets = SpongeParticleHelper.toPackets((SpongeParticleEffect) particleEffect, position);
-
-        if (!packets.isEmpty()) {
-            PlayerList playerList = this.mcServer.getPlayerList();
+        this.spawnParticles(particleEffect, Collections.singletonList(position), radius);
+    }
 
-            double x = position.getX();
-            double y = position.getY();
-            double z = position.getZ();
+    @Override
+    public void spawnParticles(ParticleEffect particleEffect, Iterable<Vector3d> positions, int radius) {
+        checkNotNull(particleEffect, "The particle effect cannot be null!");
+        checkNotNull(positions, "The positions cannot be null");
+        checkArgument(radius > 0, "The radius has to be greater then zero!");
 
-            for (Packet<?> packet : packets) {
-                playerList.sendToAllNearExcept(null, x, y, z, radius, this.getDimensionId(), packet);
+        final SpongeParticleEffect effect = (SpongeParticleEffect) particleEffect;
+        final double radiusSquared = (double) radius * radius;
+        final List<Packet<?>> packets = new ArrayList<>();
+        final List<EntityPlayerMP> targets = new ArrayList<>();
+        // Packets that don't depend on the position are shared between the positions, the batch encodes each of them once
+        try (PacketBroadcaster.Batch batch = PacketBroadcaster.batch()) {
+            for (Vector3d position : positions) {
+                packets.clear();
+                SpongeParticleHelper.addPackets(effect, position, packets);
+                if (packets.isEmpty()) {
+                    // The effect resolved to nothing, that won't change for other positions
+                    return;
+                }
+                targets.clear();
+                for (EntityPlayer player : this.playerEntities) {
+                    if (player instanceof EntityPlayerMP && position.distanceSquared(player.posX, player.posY, player.posZ) < radiusSquared) {
+                        targets.add((EntityPlayerMP) player);
+                    }
+                }
+                for (Packet<?> packet : packets) {
+                    batch.sendToAll(packet, targets);
+                }
             }
         }
     }
 
-
     @Override
     public Weather getWeather() {
         if (this.worldInfo.isThundering()) {
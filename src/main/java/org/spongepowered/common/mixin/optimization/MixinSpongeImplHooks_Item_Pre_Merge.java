@@ -24,10 +24,12 @@
  */
 package org.spongepowered.common.mixin.optimization;
 
+import com.google.common.collect.Multimap;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Overwrite;
 import org.spongepowered.common.SpongeImplHooks;
 import org.spongepowered.common.event.tracking.ItemDropData;
+import org.spongepowered.common.event.tracking.ItemDropMergeIndex;
 
 import java.util.Collection;
 
@@ -36,80 +38,29 @@ public class MixinSpongeImplHooks_Item_Pre_Merge {
 
     /**
      * @author gabizou - April 7th, 2016
-     * @reason Iterates over the collection to find possible matches for any merges that can take place.
+     * @reason Finds possible matches for any merges that can take place through an index of the
+     * collection, instead of comparing the item stack with every captured item stack.
      *
      * @param itemStacks The collection of item stacks to add on to
      * @param data The item stack being merged in
      */
     @Overwrite
     public static void addItemStackToListForSpawning(Collection<ItemDropData> itemStacks, ItemDropData data) {
-        final net.minecraft.item.ItemStack itemStack = data.getStack();
-        if (itemStack == null) {
-            return;
-        }
-        boolean addToList = true;
-
-        final boolean isPlayerDrop = data instanceof ItemDropData.Player;
-        if (itemStacks.isEmpty()) {
-            itemStacks.add(data);
-            return;
-        }
-
-        for (ItemDropData existingData : itemStacks) {
-            final net.minecraft.item.ItemStack existing = existingData.getStack();
-            if (existing == null) {
-                continue;
-            }
-            final boolean isExistingPlayer = existingData instanceof ItemDropData.Player;
-            if (isExistingPlayer && !isPlayerDrop || !isExistingPlayer && isPlayerDrop) {
-                continue;
-            }
-            if (isExistingPlayer) {
-                final ItemDropData.Player existingPlayerData = (ItemDropData.Player) existingData;
-                final ItemDropData.Player playerData = (ItemDropData.Player) data;
-                if (existingPlayerData.isTrace() ^ playerData.isTrace()) {
-                    continue;
-                }
-                if (existingPlayerData.isDropAround() ^ playerData.isDropAround()) {
-                    continue;
-                }
-            }
-
+        ItemDropMergeIndex.addItemStackToListForSpawning(itemStacks, data);
+    }
 
-            if (existing.getItem() != itemStack.getItem()) {
-                continue;
-            } else if (existing.hasTagCompound() ^ itemStack.hasTagCompound()) {
-                continue;
-            } else if (existing.hasTagCompound() && !existing.getTagCompound().equals(itemStack.getTagCompound())) {
-                continue;
-            } else if (existing.getItem() == null) {
-                continue;
-            } else if (existing.getItem().getHasSubtypes() && existing.getMetadata() != itemStack.getMetadata()) {
-                continue;
-            }
-            // now to actually merge the itemstacks
-            final int existingStackSize = existing.getCount();
-            final int addingStackSize = itemStack.getCount();
-            final int existingMaxStackSize = existing.getMaxStackSize();
-            final int proposedStackSize = existingStackSize + addingStackSize;
-            if (existingMaxStackSize < proposedStackSize) {
-                existing.setCount(existingMaxStackSize);
-                itemStack.setCount(proposedStackSize - existingMaxStackSize);
-                addToList = true;
-                // Basically, if we are overflowing the current existing stack, we can delegate to the
-                // next "equals" item stack to potentially merge into that stack as well
-            } else {
-                existing.setCount(proposedStackSize);
-                itemStack.setCount(0);
-                addToList = false;
-                break;
-            }
-        }
-        if (addToList) {
-            if (itemStack.getItem() != null || itemStack.getCount() > 0) {
-                itemStacks.add(data);
-            }
-        }
+    /**
+     * @author gabizou - April 7th, 2016
+     * @reason Finds possible matches for any merges that can take place through an index of the
+     * collection of the key, instead of comparing the item stack with every captured item stack.
+     *
+     * @param multimap The multimap of item stacks to add on to
+     * @param key The key of the item stacks
+     * @param data The item stack being merged in
+     */
+    @Overwrite
+    public static <K> void addItemStackToListForSpawning(Multimap<K, ItemDropData> multimap, K key, ItemDropData data) {
+        ItemDropMergeIndex.addItemStackToListForSpawning(multimap, key, data);
     }
 
 }
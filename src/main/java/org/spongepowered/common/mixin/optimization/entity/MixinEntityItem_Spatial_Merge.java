@@ -0,0 +1,63 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.optimization.entity;
+
+import net.minecraft.entity.item.EntityItem;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.interfaces.world.IMixinWorldServer;
+import org.spongepowered.common.mixin.core.entity.MixinEntity;
+
+@Mixin(EntityItem.class)
+public abstract class MixinEntityItem_Spatial_Merge extends MixinEntity {
+
+    @Shadow private void searchForOtherItemsNearby() {
+        // Shadowed
+    }
+
+    /**
+     * Queues the item to be merged by the world after the entities are
+     * updated, instead of searching the surrounding chunks for other items.
+     */
+    @Redirect(method = "onUpdate", at = @At(value = "INVOKE", target = "Lnet/minecraft/entity/item/EntityItem;searchForOtherItemsNearby()V"))
+    private void onSearchForOtherItemsNearby(EntityItem self) {
+        if (this.world instanceof IMixinWorldServer) {
+            ((IMixinWorldServer) this.world).queueItemMerge(self);
+        } else {
+            this.searchForOtherItemsNearby();
+        }
+    }
+
+    @Inject(method = "onUpdate", at = @At("RETURN"))
+    private void onUpdateMergePosition(CallbackInfo ci) {
+        if (this.world instanceof IMixinWorldServer) {
+            ((IMixinWorldServer) this.world).updateItemMergePosition((EntityItem) (Object) this);
+        }
+    }
+}
@@ -99,6 +99,8 @@ public void postApply(String targetClassName, ClassNode targetClass, String mixi
                     (module) -> true) // TODO the velocity changes need to be sent to the client
             .put("org.spongepowered.common.mixin.optimization.entity.MixinEntityTameable_Cached_Owner",
                     OptimizationCategory::useCacheTameableOwners)
+            .put("org.spongepowered.common.mixin.optimization.entity.MixinEntityItem_Spatial_Merge",
+                    OptimizationCategory::useSpatialItemMerging)
             .put("org.spongepowered.common.mixin.optimization.util.math.MixinMutableBlockPos_Inline_Valid_BlockPos",
                     OptimizationCategory::isInlineBlockPositionChecks)
             .put("org.spongepowered.common.mixin.optimization.util.math.MixinVec3i_Inline_Valid_BlockPos",
@@ -0,0 +1,263 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.EnumConnectionState;
+import net.minecraft.network.EnumPacketDirection;
+import net.minecraft.network.NetHandlerPlayServer;
+import net.minecraft.network.Packet;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.network.play.server.SPacketChat;
+import net.minecraft.util.text.ITextComponent;
+import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.channel.ChatTypeMessageReceiver;
+import org.spongepowered.api.text.channel.MessageChannel;
+import org.spongepowered.api.text.channel.MessageReceiver;
+import org.spongepowered.api.text.chat.ChatType;
+import org.spongepowered.api.text.chat.ChatTypes;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.interfaces.network.IMixinNetHandlerPlayServer;
+import org.spongepowered.common.text.SpongeTexts;
+import org.spongepowered.common.text.chat.SpongeChatType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * Sends the same packet to many players while serializing it only once.
+ * The packet is encoded into a shared, reference counted {@link ByteBuf}
+ * and a retained duplicate is written to each player's connection, skipping
+ * the per connection packet encoder.
+ */
+public final class PacketBroadcaster {
+
+    // Below this, encoding once saves nothing over the regular path
+    private static final int MIN_SHARED_RECIPIENTS = 2;
+
+    private static final Map<Class<?>, Boolean> channelsOverridingSend = new ConcurrentHashMap<>();
+
+    private PacketBroadcaster() {
+    }
+
+    public static boolean isEnabled() {
+        return SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useEncodeOnceBroadcasts();
+    }
+
+    /**
+     * Sends the packet to all of the provided players.
+     *
+     * @param packet The packet to send
+     * @param players The players to send the packet to
+     */
+    public static void sendToAll(Packet<?> packet, Collection<EntityPlayerMP> players) {
+        sendToAll(packet, players, null);
+    }
+
+    /**
+     * Starts a batch in which every packet instance is only encoded once,
+     * even if it is sent to different groups of players. The batch has to be
+     * closed to release the encoded packets.
+     *
+     * @return The batch
+     */
+    public static Batch batch() {
+        return new Batch();
+    }
+
+    static void sendToAll(Packet<?> packet, Collection<EntityPlayerMP> players, @Nullable Batch batch) {
+        if (players.isEmpty()) {
+            return;
+        }
+        if (players.size() < MIN_SHARED_RECIPIENTS || !isEnabled()) {
+            for (EntityPlayerMP player : players) {
+                if (player.connection != null) {
+                    player.connection.sendPacket(packet);
+                }
+            }
+            return;
+        }
+        final ByteBuf encoded = batch != null ? batch.encode(packet) : encode(packet);
+        try {
+            for (EntityPlayerMP player : players) {
+                final NetHandlerPlayServer connection = player.connection;
+                if (connection == null) {
+                    continue;
+                }
+                if (encoded == null || !((IMixinNetHandlerPlayServer) connection).sendEncodedPacket(packet, encoded)) {
+                    connection.sendPacket(packet);
+                }
+            }
+        } finally {
+            if (encoded != null && batch == null) {
+                encoded.release();
+            }
+        }
+    }
+
+    /**
+     * Sends the packets to all players within the radius of the position in
+     * the dimension, the same players as
+     * {@link net.minecraft.server.management.PlayerList#sendToAllNearExcept}
+     * would send to.
+     *
+     * @param except The player to exclude, if any
+     * @param x The x position
+     * @param y The y position
+     * @param z The z position
+     * @param radius The radius around the position
+     * @param dimension The dimension id
+     * @param packets The packets to send
+     */
+    public static void sendToAllNearExcept(@Nullable EntityPlayer except, double x, double y, double z, double radius, int dimension,
+            List<Packet<?>> packets) {
+        final List<EntityPlayerMP> targets = new ArrayList<>();
+        final double radiusSquared = radius * radius;
+        for (EntityPlayerMP player : SpongeImpl.getServer().getPlayerList().getPlayers()) {
+            if (player != except && player.dimension == dimension) {
+                final double dx = x - player.posX;
+                final double dy = y - player.posY;
+                final double dz = z - player.posZ;
+                if (dx * dx + dy * dy + dz * dz < radiusSquared) {
+                    targets.add(player);
+                }
+            }
+        }
+        for (Packet<?> packet : packets) {
+            sendToAll(packet, targets);
+        }
+    }
+
+    public static void sendToAllNearExcept(@Nullable EntityPlayer except, double x, double y, double z, double radius, int dimension,
+            Packet<?> packet) {
+        sendToAllNearExcept(except, x, y, z, radius, dimension, Collections.singletonList(packet));
+    }
+
+    /**
+     * Sends the message through the channel like
+     * {@link MessageChannel#send(Object, Text, ChatType)}, encoding the chat
+     * packet once for all players that receive the same transformed message.
+     *
+     * @param channel The channel
+     * @param sender The sender of the message, if any
+     * @param original The original message
+     * @param type The chat type
+     */
+    public static void sendMessage(MessageChannel channel, @Nullable Object sender, Text original, ChatType type) {
+        if (!isEnabled() || overridesSend(channel.getClass())) {
+            channel.send(sender, original, type);
+            return;
+        }
+        // Channels usually hand out the original message, so group by instance
+        final Map<Text, List<EntityPlayerMP>> playersByMessage = new IdentityHashMap<>();
+        for (MessageReceiver member : channel.getMembers()) {
+            final Optional<Text> message = channel.transformMessage(sender, member, original, type);
+            if (!message.isPresent()) {
+                continue;
+            }
+            if (member instanceof EntityPlayerMP) {
+                playersByMessage.computeIfAbsent(message.get(), text -> new ArrayList<>()).add((EntityPlayerMP) member);
+            } else if (member instanceof ChatTypeMessageReceiver) {
+                ((ChatTypeMessageReceiver) member).sendMessage(type, message.get());
+            } else {
+                member.sendMessage(message.get());
+            }
+        }
+        for (Map.Entry<Text, List<EntityPlayerMP>> entry : playersByMessage.entrySet()) {
+            ITextComponent component = SpongeTexts.toComponent(entry.getKey());
+            if (type == ChatTypes.ACTION_BAR) {
+                component = SpongeTexts.fixActionBarFormatting(component);
+            }
+            sendToAll(new SPacketChat(component, ((SpongeChatType) type).getByteId()), entry.getValue());
+        }
+    }
+
+    private static boolean overridesSend(Class<?> channelClass) {
+        return channelsOverridingSend.computeIfAbsent(channelClass, clazz -> {
+            try {
+                return clazz.getMethod("send", Object.class, Text.class, ChatType.class).getDeclaringClass() != MessageChannel.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        });
+    }
+
+    public static final class Batch implements AutoCloseable {
+
+        private final Map<Packet<?>, Optional<ByteBuf>> encoded = new IdentityHashMap<>();
+
+        Batch() {
+        }
+
+        public void sendToAll(Packet<?> packet, Collection<EntityPlayerMP> players) {
+            PacketBroadcaster.sendToAll(packet, players, this);
+        }
+
+        @Nullable
+        ByteBuf encode(Packet<?> packet) {
+            return this.encoded.computeIfAbsent(packet, key -> Optional.ofNullable(PacketBroadcaster.encode(key))).orElse(null);
+        }
+
+        @Override
+        public void close() {
+            for (Optional<ByteBuf> buffer : this.encoded.values()) {
+                buffer.ifPresent(ByteBuf::release);
+            }
+            this.encoded.clear();
+        }
+    }
+
+    @Nullable
+    private static ByteBuf encode(Packet<?> packet) {
+        final ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            final Integer packetId = EnumConnectionState.PLAY.getPacketId(EnumPacketDirection.CLIENTBOUND, packet);
+            if (packetId == null) {
+                buffer.release();
+                return null;
+            }
+            final PacketBuffer packetBuffer = new PacketBuffer(buffer);
+            packetBuffer.writeVarInt(packetId);
+            packet.writePacketData(packetBuffer);
+            return buffer;
+        } catch (Exception e) {
+            SpongeImpl.getLogger().debug("Could not encode {} for broadcasting, sending it to each player instead.", packet.getClass().getName(), e);
+            buffer.release();
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.network;
+
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.Packet;
+import net.minecraft.network.play.server.SPacketDisconnect;
+import net.minecraft.network.play.server.SPacketKeepAlive;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.interfaces.IMixinNetworkManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Defers flushing the connections that packets are written to from the
+ * main thread until the end of the tick, so each connection is flushed
+ * once per tick instead of once per packet.
+ */
+public final class PacketFlushCoalescer {
+
+    // Packets that are latency critical and flushed right away
+    private static final Set<Class<?>> immediateFlushPackets = ConcurrentHashMap.newKeySet();
+    private static final List<NetworkManager> dirtyConnections = new ArrayList<>();
+
+    private static final LongAdder writtenPackets = new LongAdder();
+    private static final LongAdder flushes = new LongAdder();
+
+    static {
+        immediateFlushPackets.add(SPacketKeepAlive.class);
+        immediateFlushPackets.add(SPacketDisconnect.class);
+    }
+
+    private PacketFlushCoalescer() {
+    }
+
+    /**
+     * Registers a packet type that is always flushed right away.
+     *
+     * @param packetClass The packet class
+     */
+    public static void addImmediateFlushPacket(Class<? extends Packet<?>> packetClass) {
+        immediateFlushPackets.add(packetClass);
+    }
+
+    /**
+     * Gets whether the flush of the packet can be deferred to the end of
+     * the tick. Packets with listeners are flushed right away, as the
+     * listeners may rely on the packet being sent.
+     *
+     * @param packet The packet
+     * @param hasListeners Whether the packet has future listeners
+     * @return True if the flush can be deferred
+     */
+    public static boolean canDeferFlush(Packet<?> packet, boolean hasListeners) {
+        return !hasListeners && !immediateFlushPackets.contains(packet.getClass()) && canDeferFlush();
+    }
+
+    /**
+     * Gets whether flushes can be deferred on the current thread.
+     *
+     * @return True if flushes can be deferred
+     */
+    public static boolean canDeferFlush() {
+        return SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useDeferredPacketFlushes()
+                && Sponge.isServerAvailable()
+                && SpongeImpl.getServer().isCallingFromMinecraftThread();
+    }
+
+    /**
+     * Marks the connection to be flushed at the end of the tick, may only
+     * be called from the main thread.
+     *
+     * @param networkManager The connection
+     */
+    public static void markDirty(NetworkManager networkManager) {
+        if (!((IMixinNetworkManager) networkManager).isFlushPending()) {
+            ((IMixinNetworkManager) networkManager).setFlushPending(true);
+            dirtyConnections.add(networkManager);
+        }
+    }
+
+    /**
+     * Flushes all connections that were written to without flushing.
+     */
+    public static void flushAll() {
+        if (dirtyConnections.isEmpty()) {
+            return;
+        }
+        for (NetworkManager networkManager : dirtyConnections) {
+            ((IMixinNetworkManager) networkManager).setFlushPending(false);
+            if (networkManager.isChannelOpen()) {
+                networkManager.channel().flush();
+                flushes.increment();
+            }
+        }
+        dirtyConnections.clear();
+    }
+
+    public static void onPacketWritten(boolean flushed) {
+        writtenPackets.increment();
+        if (flushed) {
+            flushes.increment();
+        }
+    }
+
+    public static long getWrittenPackets() {
+        return writtenPackets.sum();
+    }
+
+    public static long getFlushes() {
+        return flushes.sum();
+    }
+
+}
@@ -70,11 +70,16 @@
 import org.spongepowered.common.util.VecHelper;
 
 import java.lang.ref.WeakReference;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Optional;
 
+import javax.annotation.Nullable;
+
 public class PacketUtil {
 
     private static final PhaseContext EMPTY_INVALID = PhaseContext.start().complete();
+    private static final Map<IPacketState, PhaseContext> lightweightContexts = new IdentityHashMap<>();
     private static long lastInventoryOpenPacketTimeStamp = 0;
     private static long lastTryBlockPacketTimeStamp = 0;
     private static boolean lastTryBlockPacketItemResult = true;
@@ -111,35 +116,53 @@ public static void onProcessPacket(Packet packetIn, INetHandler netHandler) {
             if (!CauseTracker.ENABLED && (packetIn instanceof CPacketAnimation || packetIn instanceof CPacketClientSettings)) {
                 packetIn.processPacket(netHandler);
             } else {
-                final ItemStackSnapshot cursor = ItemStackUtil.snapshotOf(packetPlayer.inventory.getItemStack());
                 final IMixinWorldServer world = (IMixinWorldServer) packetPlayer.world;
                 final CauseTracker causeTracker = world.getCauseTracker();
                 final IPacketState packetState = TrackingPhases.PACKET.getStateForPacket(packetIn);
                 if (packetState == null) {
                     throw new IllegalArgumentException("Found a null packet phase for packet: " + packetIn.getClass());
                 }
-                if (!TrackingPhases.PACKET.isPacketInvalid(packetIn, packetPlayer, packetState)) {
-                    PhaseContext context = PhaseContext.start()
-                            .add(NamedCause.source(packetPlayer))
-                            .add(NamedCause.of(InternalNamedCauses.Packet.PACKET_PLAYER, packetPlayer))
-                            .add(NamedCause.of(InternalNamedCauses.Packet.CAPTURED_PACKET, packetIn))
-                            .add(NamedCause.of(InternalNamedCauses.Packet.CURSOR, cursor))
-                            .add(NamedCause.of(InternalNamedCauses.Packet.IGNORING_CREATIVE, ignoreCreative));
-
-                    TrackingPhases.PACKET.populateContext(packetIn, packetPlayer, packetState, context);
-                    context.owner((Player) packetPlayer);
-                    context.notifier((Player) packetPlayer);
-                    context.complete();
-                    causeTracker.switchToPhase(packetState, context);
-                } else {
-                    causeTracker.switchToPhase(PacketPhase.General.INVALID, EMPTY_INVALID);
-                }
-                packetIn.processPacket(netHandler);
-                if (packetIn instanceof CPacketClientStatus) {
-                    // update the reference of player
-                    packetPlayer = ((NetHandlerPlayServer) netHandler).playerEntity;
+                PhaseContext lightweightContext = null;
+                try {
+                    if (!TrackingPhases.PACKET.isPacketInvalid(packetIn, packetPlayer, packetState)) {
+                        if (TrackingPhases.PACKET.isLightweightPacket(packetIn)) {
+                            lightweightContext = getLightweightContext(packetIn, packetPlayer, packetState);
+                        }
+                        final PhaseContext context;
+                        if (lightweightContext != null) {
+                            context = lightweightContext
+                                    .add(NamedCause.source(packetPlayer))
+                                    .add(NamedCause.of(InternalNamedCauses.Packet.CAPTURED_PACKET, packetIn));
+                        } else {
+                            final ItemStackSnapshot cursor = ItemStackUtil.snapshotOf(packetPlayer.inventory.getItemStack());
+                            context = PhaseContext.start()
+                                    .add(NamedCause.source(packetPlayer))
+                                    .add(NamedCause.of(InternalNamedCauses.Packet.PACKET_PLAYER, packetPlayer))
+                                    .add(NamedCause.of(InternalNamedCauses.Packet.CAPTURED_PACKET, packetIn))
+                                    .add(NamedCause.of(InternalNamedCauses.Packet.CURSOR, cursor))
+                                    .add(NamedCause.of(InternalNamedCauses.Packet.IGNORING_CREATIVE, ignoreCreative));
+
+                            TrackingPhases.PACKET.populateContext(packetIn, packetPlayer, packetState, context);
+                        }
+                        context.owner((Player) packetPlayer);
+                        context.notifier((Player) packetPlayer);
+                        context.complete();
+                        causeTracker.switchToPhase(packetState, context);
+                    } else {
+                        causeTracker.switchToPhase(PacketPhase.General.INVALID, EMPTY_INVALID);
+                    }
+                    packetIn.processPacket(netHandler);
+                    if (packetIn instanceof CPacketClientStatus) {
+                        // update the reference of player
+                        packetPlayer = ((NetHandlerPlayServer) netHandler).playerEntity;
+                    }
+                    causeTracker.completePhase();
+                } finally {
+                    // Always release the reusable context, or the state would never get a lightweight context again
+                    if (lightweightContext != null) {
+                        lightweightContext.reset();
+                    }
                 }
-                causeTracker.completePhase();
                 ((IMixinEntityPlayerMP) packetPlayer).setPacketItem(null);
                 if (packetIn instanceof CPacketClickWindow) {
                     CPacketClickWindow packet = (CPacketClickWindow) packetIn;
@@ -151,6 +174,25 @@ public static void onProcessPacket(Packet packetIn, INetHandler netHandler) {
         }
     }
 
+    /**
+     * Gets the reusable context for the packet state, contexts are only
+     * reused on the main thread and only once the previous packet completed.
+     */
+    @Nullable
+    private static PhaseContext getLightweightContext(Packet<?> packetIn, EntityPlayerMP packetPlayer, IPacketState packetState) {
+        PhaseContext context = lightweightContexts.get(packetState);
+        if (context == null) {
+            context = PhaseContext.start();
+            TrackingPhases.PACKET.populateContext(packetIn, packetPlayer, packetState, context);
+            context.markReusable();
+            lightweightContexts.put(packetState, context);
+        } else if (context.isComplete()) {
+            // Still in use, a previous packet didn't complete its phase
+            return null;
+        }
+        return context;
+    }
+
     private static boolean creativeCheck(Packet<?> packetIn, EntityPlayerMP playerMP) {
         return packetIn instanceof CPacketCreativeInventoryAction;
     }
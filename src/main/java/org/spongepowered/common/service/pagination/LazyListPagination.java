@@ -0,0 +1,134 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.pagination;
+
+import static org.spongepowered.common.util.SpongeCommonTranslationHelper.t;
+
+import com.google.common.collect.ImmutableList;
+import org.spongepowered.api.command.CommandException;
+import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.channel.MessageReceiver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pagination working with a large list of values, the pages are only
+ * split up once they are requested instead of all at once.
+ *
+ * <p>The total amount of pages is unknown until the last page was
+ * computed.</p>
+ */
+class LazyListPagination extends ActivePagination {
+
+    private final List<Text> lines;
+    // The index of the first line of every page computed so far
+    private final List<Integer> pageStarts = new ArrayList<>();
+    private boolean complete;
+
+    public LazyListPagination(MessageReceiver src, PaginationCalculator calc, List<Text> lines,
+            Text title, Text header, Text footer, Text padding) {
+        super(src, calc, title, header, footer, padding);
+        this.lines = lines;
+        if (lines.isEmpty()) {
+            this.complete = true;
+        } else {
+            this.pageStarts.add(0);
+        }
+    }
+
+    /**
+     * Computes the bounds of all pages up to the given page, so that the
+     * page can be sent without measuring any lines.
+     *
+     * @param page The page
+     */
+    synchronized void computePages(int page) {
+        // The end of a page is the start of the next one
+        while (!this.complete && this.pageStarts.size() <= page) {
+            final int maxLines = getMaxContentLinesPerPage();
+            int index = this.pageStarts.get(this.pageStarts.size() - 1);
+            int currentPageLines = 0;
+            while (index < this.lines.size()) {
+                final int lines = this.calc.getLines(this.lines.get(index));
+                if (maxLines > 0 && currentPageLines + lines > maxLines && currentPageLines != 0) {
+                    break;
+                }
+                currentPageLines += lines;
+                index++;
+            }
+            if (index < this.lines.size()) {
+                this.pageStarts.add(index);
+            } else {
+                this.complete = true;
+            }
+        }
+    }
+
+    @Override
+    protected synchronized Iterable<Text> getLines(int page) throws CommandException {
+        if (this.lines.isEmpty()) {
+            return ImmutableList.of();
+        } else if (page < 1) {
+            throw new CommandException(t("Page %s does not exist!", page));
+        }
+        computePages(page);
+        if (page > this.pageStarts.size()) {
+            throw new CommandException(t("Page %s is too high", page));
+        }
+        final int start = this.pageStarts.get(page - 1);
+        final int end = page < this.pageStarts.size() ? this.pageStarts.get(page) : this.lines.size();
+        final List<Text> currentPage = new ArrayList<>(this.lines.subList(start, end));
+        int currentPageLines = 0;
+        for (Text line : currentPage) {
+            currentPageLines += this.calc.getLines(line);
+        }
+        if (getMaxContentLinesPerPage() > 0) {
+            if (end < this.lines.size()) {
+                padPage(currentPage, currentPageLines, true);
+            } else if (page > 1) {
+                // Only pad if we have a previous page
+                padPage(currentPage, currentPageLines, false);
+            }
+        }
+        return currentPage;
+    }
+
+    @Override
+    protected boolean hasPrevious(int page) {
+        return page > 1;
+    }
+
+    @Override
+    protected synchronized boolean hasNext(int page) {
+        computePages(page);
+        return page < this.pageStarts.size();
+    }
+
+    @Override
+    protected synchronized int getTotalPages() {
+        return this.complete ? this.pageStarts.size() : -1;
+    }
+}
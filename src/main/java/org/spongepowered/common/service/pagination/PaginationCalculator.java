@@ -26,6 +26,8 @@
 
 import com.flowpowered.math.GenericMath;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TextComponentString;
 import net.minecraft.util.text.TextComponentTranslation;
@@ -41,6 +43,7 @@
 import org.spongepowered.common.text.SpongeTexts;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.PrimitiveIterator;
@@ -52,7 +55,10 @@ public class PaginationCalculator {
     private static final String NON_UNICODE_CHARS;
     private static final int[] NON_UNICODE_CHAR_WIDTHS;
     private static final byte[] UNICODE_CHAR_WIDTHS;
+    // The widths of the glyphs that were already computed, or -1
+    private static final byte[] GLYPH_WIDTHS;
     private static final int LINE_WIDTH = 320;
+    private static final Cache<Text, Integer> TEXT_WIDTHS = CacheBuilder.newBuilder().maximumSize(8192).build();
 
     private final int linesPerPage;
 
@@ -82,6 +88,8 @@ public PaginationCalculator(int linesPerPage) {
                 unicodeCharWidths[i] = (byte) glyphWidths.get(i).getInt();
             }
             UNICODE_CHAR_WIDTHS = unicodeCharWidths;
+            GLYPH_WIDTHS = new byte[unicodeCharWidths.length];
+            Arrays.fill(GLYPH_WIDTHS, (byte) -1);
         } catch (IOException e) {
             throw new ExceptionInInitializerError(e);
         }
@@ -103,6 +111,23 @@ public int getLines(Text text) {
 
     @VisibleForTesting
     int getWidth(int codePoint, boolean isBold) {
+        int width;
+        if (codePoint >= 0 && codePoint < GLYPH_WIDTHS.length) {
+            width = GLYPH_WIDTHS[codePoint];
+            if (width < 0) {
+                width = computeWidth(codePoint);
+                GLYPH_WIDTHS[codePoint] = (byte) width;
+            }
+        } else {
+            width = computeWidth(codePoint);
+        }
+        //if bolded width gets 1 added.
+        if(isBold && width > 0) width = width + 1;
+
+        return width;
+    }
+
+    private static int computeWidth(int codePoint) {
         int nonUnicodeIdx = NON_UNICODE_CHARS.indexOf(codePoint);
         int width;
         if (codePoint == 32) {
@@ -131,9 +156,6 @@ else if (codePoint > 0 && nonUnicodeIdx != -1) {
         } else {
             width = 0;
         }
-        //if bolded width gets 1 added.
-        if(isBold && width > 0) width = width + 1;
-
         return width;
     }
 
@@ -144,6 +166,17 @@ else if (codePoint > 0 && nonUnicodeIdx != -1) {
      */
     @VisibleForTesting
     int getWidth(Text text) {
+        // Texts are immutable, so the width can be reused for equal texts
+        final Integer width = TEXT_WIDTHS.getIfPresent(text);
+        if (width != null) {
+            return width;
+        }
+        final int total = computeWidth(text);
+        TEXT_WIDTHS.put(text, total);
+        return total;
+    }
+
+    private int computeWidth(Text text) {
         ITextComponent component = SpongeTexts.toComponent(text);
         Iterable<ITextComponent> children = ((IMixinTextComponent) component).withChildren();
         int total = 0;
@@ -29,11 +29,14 @@
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
+import org.spongepowered.api.Sponge;
 import org.spongepowered.api.command.CommandException;
 import org.spongepowered.api.command.source.ProxySource;
+import org.spongepowered.api.scheduler.Scheduler;
 import org.spongepowered.api.service.pagination.PaginationList;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.channel.MessageReceiver;
+import org.spongepowered.common.SpongeImpl;
 
 import java.util.List;
 import java.util.Map;
@@ -43,6 +46,9 @@
 
 public class SpongePaginationList implements PaginationList {
 
+    // The amount of lines above which the pages of a list are computed lazily
+    private static final int LAZY_PAGINATION_THRESHOLD = 1000;
+
     private final SpongePaginationService service;
     private Iterable<Text> contents;
     private Optional<Text> title;
@@ -104,16 +110,36 @@ public void sendTo(final MessageReceiver receiver) {
         }
         @SuppressWarnings("unchecked")
         PaginationCalculator calculator = new PaginationCalculator(this.linesPerPage);
-        Iterable<Map.Entry<Text, Integer>> counts = StreamSupport.stream(this.contents.spliterator(), false).map(input -> {
-            int lines = calculator.getLines(input);
-            return Maps.immutableEntry(input, lines);
-        }).collect(Collectors.toList());
 
         Text title = this.title.orElse(null);
         if (title != null) {
             title = calculator.center(title, this.paginationSpacer);
         }
 
+        if (this.contents instanceof List && ((List<?>) this.contents).size() > LAZY_PAGINATION_THRESHOLD) {
+            // Measuring every line of a large list takes a while, so only split up the pages which are requested
+            // and compute the first page off the main thread
+            final LazyListPagination pagination = new LazyListPagination(receiver, calculator, ImmutableList.copyOf(this.contents), title,
+                    this.header.orElse(null), this.footer.orElse(null), this.paginationSpacer);
+            this.service.getPaginationState(receiver, true).put(pagination);
+            final Scheduler scheduler = Sponge.getScheduler();
+            scheduler.createTaskBuilder()
+                    .async()
+                    .execute(() -> {
+                        pagination.computePages(1);
+                        scheduler.createTaskBuilder()
+                                .execute(() -> sendFirstPage(receiver, pagination))
+                                .submit(SpongeImpl.getPlugin());
+                    })
+                    .submit(SpongeImpl.getPlugin());
+            return;
+        }
+
+        Iterable<Map.Entry<Text, Integer>> counts = StreamSupport.stream(this.contents.spliterator(), false).map(input -> {
+            int lines = calculator.getLines(input);
+            return Maps.immutableEntry(input, lines);
+        }).collect(Collectors.toList());
+
         ActivePagination pagination;
         if (this.contents instanceof List) { // If it started out as a list, it's probably reasonable to copy it to another list
             pagination = new ListPagination(receiver, calculator, ImmutableList.copyOf(counts), title, this.header.orElse(null), this.footer.orElse(null), this.paginationSpacer);
@@ -122,6 +148,10 @@ public void sendTo(final MessageReceiver receiver) {
         }
 
         this.service.getPaginationState(receiver, true).put(pagination);
+        sendFirstPage(receiver, pagination);
+    }
+
+    private static void sendFirstPage(MessageReceiver receiver, ActivePagination pagination) {
         try {
             pagination.nextPage();
         } catch (CommandException e) {
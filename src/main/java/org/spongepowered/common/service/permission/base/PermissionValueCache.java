@@ -0,0 +1,92 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.permission.base;
+
+import org.spongepowered.api.service.context.Context;
+import org.spongepowered.api.util.Tristate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the resolved permission values of a {@link SpongeSubject}. A value
+ * may depend on parents, defaults and the ops list, so all caches are
+ * discarded whenever any of them change by advancing a global epoch.
+ */
+public final class PermissionValueCache {
+
+    private static final AtomicLong epoch = new AtomicLong();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private volatile Values values = new Values(-1);
+
+    /**
+     * Discards the resolved permission values of all subjects.
+     */
+    public static void invalidateAll() {
+        epoch.incrementAndGet();
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    Tristate get(SpongeSubject subject, Set<Context> contexts, String permission) {
+        // Values resolved while the epoch advances end up in the discarded map
+        final long currentEpoch = epoch.get();
+        Values values = this.values;
+        if (values.epoch != currentEpoch) {
+            values = new Values(currentEpoch);
+            this.values = values;
+        }
+        Tristate value = values.map.get(permission);
+        if (value == null) {
+            misses.increment();
+            value = subject.resolvePermissionValue(contexts, permission);
+            values.map.put(permission, value);
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    private static final class Values {
+
+        final long epoch;
+        final Map<String, Tristate> map = new ConcurrentHashMap<>();
+
+        Values(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -36,6 +36,8 @@
 
 public abstract class SpongeSubject implements Subject {
 
+    private final PermissionValueCache permissionCache = new PermissionValueCache();
+
     @Override
     public MemorySubjectData getTransientSubjectData() {
         return getSubjectData();
@@ -51,6 +53,22 @@ public boolean hasPermission(Set<Context> contexts, String permission) {
 
     @Override
     public Tristate getPermissionValue(Set<Context> contexts, String permission) {
+        // Changes to other subject data implementations aren't tracked
+        if (getSubjectData() instanceof GlobalMemorySubjectData) {
+            return this.permissionCache.get(this, contexts, permission);
+        }
+        return resolvePermissionValue(contexts, permission);
+    }
+
+    /**
+     * Resolves the value of a permission, the value is cached until any
+     * subject data or the ops list change.
+     *
+     * @param contexts The contexts
+     * @param permission The permission
+     * @return The value of the permission
+     */
+    protected Tristate resolvePermissionValue(Set<Context> contexts, String permission) {
         return getDataPermissionValue(getSubjectData(), permission);
     }
 
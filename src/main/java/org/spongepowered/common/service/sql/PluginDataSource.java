@@ -0,0 +1,305 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.sql;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.spongepowered.api.util.annotation.NonnullByDefault;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
+
+/**
+ * The view of a plugin on a {@link SqlPool}, limiting the amount of
+ * connections the plugin can hold at once so a single plugin can't
+ * starve the others sharing the pool.
+ *
+ * <p>The pool is looked up for every connection so that it can be closed
+ * while it is idle and opened again once it is needed.</p>
+ *
+ * <p>The connections are proxies that give the connection back to the pool
+ * and release the quota when closed. The statements, metadata and result
+ * sets created from them are proxied as well, so getting their connection
+ * or unwrapping them to their own type returns the proxy rather than the
+ * pooled connection.</p>
+ *
+ * <p>This data source can be unwrapped to the {@link HikariDataSource} of
+ * the pool. The pool is kept open from then on, since the plugin may use it
+ * directly at any time.</p>
+ */
+@NonnullByDefault
+final class PluginDataSource implements DataSource {
+
+    interface PoolSupplier {
+
+        SqlPool retain(int poolSize) throws SQLException;
+    }
+
+    private final String owner;
+    private final PoolSupplier pools;
+    private final int quotaLimit;
+    // Guarded by this for writes, raised if the plugin uses an alias with a larger pool size
+    private volatile int poolSize;
+    private volatile int maxConnections;
+    @Nullable private final Semaphore quota;
+    private final long timeoutMillis;
+    // Guarded by this, the pool kept open after this data source was unwrapped
+    @Nullable private SqlPool unwrappedPool;
+
+    /**
+     * Creates a new data source.
+     *
+     * @param owner The id of the owning plugin
+     * @param pools The supplier of the retained pool
+     * @param poolSize The maximum amount of connections of the pool
+     * @param quota The maximum amount of connections, or 0 for no limit
+     * @param timeoutMillis The time to wait for a connection quota
+     */
+    PluginDataSource(String owner, PoolSupplier pools, int poolSize, int quota, long timeoutMillis) {
+        this.owner = owner;
+        this.pools = pools;
+        this.quotaLimit = quota;
+        this.poolSize = poolSize;
+        this.maxConnections = quota > 0 ? Math.min(quota, poolSize) : poolSize;
+        this.quota = quota > 0 ? new Semaphore(this.maxConnections, true) : null;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    String getOwner() {
+        return this.owner;
+    }
+
+    /**
+     * Gets the maximum amount of connections the owning plugin can hold at
+     * once.
+     *
+     * @return The maximum amount of connections
+     */
+    int getMaxConnections() {
+        return this.maxConnections;
+    }
+
+    /**
+     * Gets the amount of connections that are currently in use by the
+     * owning plugin, if a quota is applied.
+     *
+     * @return The amount of leased connections
+     */
+    int getLeasedConnections() {
+        return this.quota == null ? 0 : this.maxConnections - this.quota.availablePermits();
+    }
+
+    /**
+     * Raises the pool size and with it the maximum amount of connections,
+     * the plugin may use several aliases with different pool sizes for the
+     * same database.
+     *
+     * @param poolSize The requested maximum amount of connections of the pool
+     */
+    synchronized void ensurePoolSize(int poolSize) {
+        if (poolSize <= this.poolSize) {
+            return;
+        }
+        this.poolSize = poolSize;
+        final int maxConnections = this.quotaLimit > 0 ? Math.min(this.quotaLimit, poolSize) : poolSize;
+        if (this.quota != null && maxConnections > this.maxConnections) {
+            this.quota.release(maxConnections - this.maxConnections);
+        }
+        this.maxConnections = maxConnections;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        final long start = System.nanoTime();
+        if (this.quota != null) {
+            boolean acquired;
+            try {
+                acquired = this.quota.tryAcquire(this.timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection", e);
+            }
+            if (!acquired) {
+                throw new SQLTimeoutException("The plugin " + this.owner + " reached its connection quota, waited " + this.timeoutMillis + "ms");
+            }
+        }
+        try {
+            final SqlPool pool = this.pools.retain(this.poolSize);
+            final Connection connection;
+            try {
+                connection = pool.getSource().getConnection();
+            } catch (SQLException | RuntimeException e) {
+                pool.release();
+                throw e;
+            }
+            pool.recordWait(System.nanoTime() - start);
+            return wrap(connection, pool);
+        } catch (SQLException | RuntimeException e) {
+            if (this.quota != null) {
+                this.quota.release();
+            }
+            throw e;
+        }
+    }
+
+    // The types created from a connection that can lead back to it
+    private static boolean isConnectionBound(Class<?> type) {
+        return type == Statement.class || type == PreparedStatement.class || type == CallableStatement.class
+                || type == DatabaseMetaData.class || type == ResultSet.class;
+    }
+
+    private Connection wrap(Connection connection, SqlPool pool) {
+        final AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+            if (isUnwrapToProxy(proxy, method, args)) {
+                return proxy;
+            }
+            if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                if (closed.compareAndSet(false, true)) {
+                    try {
+                        connection.close();
+                    } finally {
+                        pool.release();
+                        if (this.quota != null) {
+                            this.quota.release();
+                        }
+                    }
+                }
+                return null;
+            }
+            return wrapResult((Connection) proxy, null, method, invoke(connection, method, args));
+        });
+    }
+
+    @Nullable
+    private static Object wrapResult(Connection connection, @Nullable Object parent, Method method, @Nullable Object result) {
+        final Class<?> type = method.getReturnType();
+        if (result == null || !isConnectionBound(type)) {
+            return result;
+        }
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, childMethod, args) -> {
+            if (isUnwrapToProxy(proxy, childMethod, args)) {
+                return proxy;
+            }
+            if (childMethod.getParameterCount() == 0) {
+                if (childMethod.getName().equals("getConnection")) {
+                    return connection;
+                }
+                // The statement a result set was created from, metadata result sets may have their own
+                if (childMethod.getName().equals("getStatement") && parent instanceof Statement) {
+                    return parent;
+                }
+            }
+            return wrapResult(connection, proxy, childMethod, invoke(result, childMethod, args));
+        });
+    }
+
+    // Unwrapping to a type of the proxy must not expose the pooled object, e.g. a connection that could be closed without the proxy
+    private static boolean isUnwrapToProxy(Object proxy, Method method, @Nullable Object[] args) {
+        return method.getName().equals("unwrap") && method.getParameterCount() == 1 && args != null
+                && args[0] instanceof Class && ((Class<?>) args[0]).isInstance(proxy);
+    }
+
+    @Nullable
+    private static Object invoke(Object target, Method method, @Nullable Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The credentials are specified by the connection url");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return (int) TimeUnit.MILLISECONDS.toSeconds(this.timeoutMillis);
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        final HikariDataSource source = getUnwrappedPool().getSource();
+        if (iface.isInstance(source)) {
+            return iface.cast(source);
+        }
+        return source.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || iface.isAssignableFrom(HikariDataSource.class) || getUnwrappedPool().getSource().isWrapperFor(iface);
+    }
+
+    private synchronized SqlPool getUnwrappedPool() throws SQLException {
+        if (this.unwrappedPool == null || this.unwrappedPool.isClosed()) {
+            // Never released, the pool can't be closed while idle anymore
+            this.unwrappedPool = this.pools.retain(this.poolSize);
+        }
+        return this.unwrappedPool;
+    }
+}
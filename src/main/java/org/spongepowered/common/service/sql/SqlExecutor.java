@@ -0,0 +1,334 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.sql;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.spongepowered.api.util.annotation.NonnullByDefault;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
+
+/**
+ * Executes the statements of a plugin off the main thread, using a bounded
+ * amount of threads for each data source.
+ *
+ * <p>Updates submitted through {@link #update(String, Object...)} are
+ * collected for a short time and executed together as a single JDBC batch
+ * in one transaction, so a plugin writing many rows doesn't need a
+ * round trip to the database for each of them.</p>
+ *
+ * <p>Updates are executed one batch at a time in the order they were
+ * queued. Only consecutive updates using the same statement are batched
+ * together, an update using another statement starts a new batch. Functions
+ * passed to {@link #submit(SqlFunction)} run once all updates queued before
+ * them are executed, but may run concurrently with each other and with
+ * updates queued after them.</p>
+ */
+@NonnullByDefault
+public final class SqlExecutor {
+
+    /**
+     * A function using a connection of the data source.
+     *
+     * @param <T> The type of the result
+     */
+    @FunctionalInterface
+    public interface SqlFunction<T> {
+
+        T apply(Connection connection) throws SQLException;
+    }
+
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60;
+    private static final ScheduledExecutorService BATCH_TIMER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("Sponge SQL Batch Timer").setDaemon(true).build());
+
+    private final DataSource source;
+    private final ThreadPoolExecutor executor;
+    private final Executor syncExecutor;
+    private final long batchWindowMillis;
+    // Guarded by this, the batch collecting updates and the completion of the last queued batch
+    @Nullable private Batch pending;
+    private CompletableFuture<Void> lastBatch = CompletableFuture.completedFuture(null);
+    private final LongAdder batchedUpdates = new LongAdder();
+    private final LongAdder executedBatches = new LongAdder();
+
+    /**
+     * Creates a new executor.
+     *
+     * @param name The name of the threads
+     * @param source The data source to get the connections from
+     * @param threads The maximum amount of statements executed at once
+     * @param batchWindowMillis The time to collect updates into a batch
+     * @param syncExecutor The executor running tasks on the main thread
+     */
+    SqlExecutor(String name, DataSource source, int threads, long batchWindowMillis, Executor syncExecutor) {
+        this.source = source;
+        this.executor = new ThreadPoolExecutor(threads, threads, THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                new ThreadFactoryBuilder().setNameFormat("Sponge SQL Executor - " + name + " #%d").setDaemon(true).build());
+        // Don't keep threads of plugins that rarely use the database
+        this.executor.allowCoreThreadTimeOut(true);
+        this.syncExecutor = syncExecutor;
+        this.batchWindowMillis = batchWindowMillis;
+    }
+
+    /**
+     * Gets the executor running tasks on the main thread, it can be used to
+     * handle the result of a statement on the main thread.
+     *
+     * @return The main thread executor
+     */
+    public Executor getSyncExecutor() {
+        return this.syncExecutor;
+    }
+
+    /**
+     * Applies the function to a connection off the main thread, once the
+     * updates queued before are executed.
+     *
+     * @param function The function
+     * @param <T> The type of the result
+     * @return The future completed with the result of the function
+     */
+    public <T> CompletableFuture<T> submit(SqlFunction<T> function) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final CompletableFuture<Void> previous;
+        synchronized (this) {
+            flushPending();
+            previous = this.lastBatch;
+        }
+        previous.whenComplete((result, failure) -> execute(() -> {
+            try (Connection connection = this.source.getConnection()) {
+                future.complete(function.apply(connection));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, future));
+        return future;
+    }
+
+    /**
+     * Applies the function to a connection off the main thread and passes
+     * the result to the callback on the main thread.
+     *
+     * @param function The function
+     * @param callback The callback receiving the result or the failure
+     * @param <T> The type of the result
+     * @return The future completed with the result of the function
+     */
+    public <T> CompletableFuture<T> submit(SqlFunction<T> function, BiConsumer<? super T, ? super Throwable> callback) {
+        final CompletableFuture<T> future = submit(function);
+        future.whenCompleteAsync(callback, this.syncExecutor);
+        return future;
+    }
+
+    /**
+     * Queues an update to be executed as part of a batch with the updates
+     * using the same statement queued right before and after it. The update
+     * is executed after all updates queued before.
+     *
+     * <p>If any update of the batch fails, the whole batch is rolled back
+     * and all its futures fail.</p>
+     *
+     * @param sql The statement
+     * @param parameters The parameters of the statement
+     * @return The future completed with the update count of the statement
+     */
+    public CompletableFuture<Integer> update(String sql, Object... parameters) {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+        synchronized (this) {
+            Batch batch = this.pending;
+            if (batch == null || !batch.sql.equals(sql)) {
+                // Keep the order, the updates of another statement are executed first
+                flushPending();
+                batch = new Batch(sql);
+                this.pending = batch;
+                final Batch scheduled = batch;
+                BATCH_TIMER.schedule(() -> flush(scheduled), this.batchWindowMillis, TimeUnit.MILLISECONDS);
+            }
+            batch.parameters.add(parameters.clone());
+            batch.futures.add(future);
+            if (batch.futures.size() >= MAX_BATCH_SIZE) {
+                flushPending();
+            }
+        }
+        return future;
+    }
+
+    private synchronized void flush(Batch batch) {
+        // The batch was already queued once it was full or followed by another statement
+        if (this.pending == batch) {
+            flushPending();
+        }
+    }
+
+    // Only called while holding this, queues the pending batch after the last one
+    private void flushPending() {
+        final Batch batch = this.pending;
+        if (batch == null) {
+            return;
+        }
+        this.pending = null;
+        this.batchedUpdates.add(batch.futures.size());
+        this.executedBatches.increment();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        this.lastBatch.whenComplete((result, failure) -> {
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        batch.run();
+                    } finally {
+                        done.complete(null);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                batch.fail(e);
+                done.complete(null);
+            }
+        });
+        this.lastBatch = done;
+    }
+
+    private void execute(Runnable task, CompletableFuture<?> future) {
+        try {
+            this.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Raises the maximum amount of statements executed at once.
+     *
+     * @param threads The requested amount of threads
+     */
+    synchronized void ensureThreads(int threads) {
+        if (threads > this.executor.getMaximumPoolSize()) {
+            this.executor.setMaximumPoolSize(threads);
+            this.executor.setCorePoolSize(threads);
+        }
+    }
+
+    public int getQueuedTasks() {
+        return this.executor.getQueue().size();
+    }
+
+    public long getBatchedUpdates() {
+        return this.batchedUpdates.sum();
+    }
+
+    public long getExecutedBatches() {
+        return this.executedBatches.sum();
+    }
+
+    /**
+     * Executes the pending batches and stops accepting new statements.
+     *
+     * @param timeout The time to wait for the queued statements
+     * @param unit The unit of the timeout
+     * @throws InterruptedException If interrupted while waiting
+     */
+    void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        final CompletableFuture<Void> lastBatch;
+        synchronized (this) {
+            flushPending();
+            lastBatch = this.lastBatch;
+        }
+        // The batches are queued one after the other, wait for all of them before rejecting new tasks
+        try {
+            lastBatch.get(timeout, unit);
+        } catch (ExecutionException | TimeoutException ignored) {
+        }
+        this.executor.shutdown();
+        this.executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    private final class Batch implements Runnable {
+
+        final String sql;
+        final List<Object[]> parameters = new ArrayList<>();
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public void run() {
+            try (Connection connection = SqlExecutor.this.source.getConnection()) {
+                final boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                final int[] counts;
+                try (PreparedStatement statement = connection.prepareStatement(this.sql)) {
+                    for (Object[] parameters : this.parameters) {
+                        for (int i = 0; i < parameters.length; i++) {
+                            statement.setObject(i + 1, parameters[i]);
+                        }
+                        statement.addBatch();
+                    }
+                    counts = statement.executeBatch();
+                    connection.commit();
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+                for (int i = 0; i < this.futures.size(); i++) {
+                    this.futures.get(i).complete(i < counts.length ? counts[i] : PreparedStatement.SUCCESS_NO_INFO);
+                }
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }
+
+        void fail(Throwable t) {
+            for (CompletableFuture<Integer> future : this.futures) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.sql;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.spongepowered.api.util.annotation.NonnullByDefault;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A connection pool shared by every plugin connecting to the same
+ * database with the same credentials.
+ */
+@NonnullByDefault
+public final class SqlPool {
+
+    private final SqlServiceImpl.PoolKey key;
+    private final String url;
+    private final HikariDataSource source;
+    private final AtomicInteger leased = new AtomicInteger();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private volatile long lastUsed = System.nanoTime();
+    private volatile boolean closed;
+
+    SqlPool(SqlServiceImpl.PoolKey key, String url, HikariDataSource source) {
+        this.key = key;
+        this.url = url;
+        this.source = source;
+    }
+
+    SqlServiceImpl.PoolKey getKey() {
+        return this.key;
+    }
+
+    HikariDataSource getSource() {
+        return this.source;
+    }
+
+    /**
+     * Marks a connection of this pool as in use, this fails if the pool
+     * was closed in the meantime.
+     *
+     * @return Whether the pool can be used
+     */
+    boolean retain() {
+        this.leased.incrementAndGet();
+        if (this.closed) {
+            this.leased.decrementAndGet();
+            return false;
+        }
+        this.lastUsed = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Raises the maximum amount of connections of this pool, pools are
+     * shared by plugins using aliases with different pool sizes, so the
+     * pool is as large as the largest size requested for it.
+     *
+     * @param size The requested maximum amount of connections
+     */
+    void ensureMaximumPoolSize(int size) {
+        synchronized (this.source) {
+            if (this.source.getMaximumPoolSize() < size) {
+                this.source.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    void release() {
+        this.lastUsed = System.nanoTime();
+        this.leased.decrementAndGet();
+    }
+
+    void recordWait(long nanos) {
+        this.acquisitions.increment();
+        this.waitNanos.add(nanos);
+        this.maxWaitNanos.accumulate(nanos);
+    }
+
+    /**
+     * Closes this pool if none of its connections are in use and it wasn't
+     * used for the given time.
+     *
+     * @param idleNanos The time after which the pool is considered idle
+     * @return Whether the pool was closed
+     */
+    boolean closeIfIdle(long idleNanos) {
+        if (this.leased.get() != 0 || System.nanoTime() - this.lastUsed < idleNanos) {
+            return false;
+        }
+        this.closed = true;
+        // A connection may have been retained before the pool was marked as closed
+        if (this.leased.get() != 0) {
+            this.closed = false;
+            return false;
+        }
+        this.source.close();
+        return true;
+    }
+
+    void close() {
+        this.closed = true;
+        this.source.close();
+    }
+
+    boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Gets the jdbc url of the database, without any authentication
+     * information.
+     *
+     * @return The url
+     */
+    public String getUrl() {
+        return this.url;
+    }
+
+    public int getMaximumPoolSize() {
+        return this.source.getMaximumPoolSize();
+    }
+
+    public int getActiveConnections() {
+        final HikariPoolMXBean pool = this.source.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    public int getIdleConnections() {
+        final HikariPoolMXBean pool = this.source.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getIdleConnections();
+    }
+
+    public int getThreadsAwaitingConnection() {
+        final HikariPoolMXBean pool = this.source.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+
+    public long getAcquisitions() {
+        return this.acquisitions.sum();
+    }
+
+    /**
+     * Gets the average time spent waiting for a connection, including the
+     * time spent waiting for the connection quota of the plugin.
+     *
+     * @return The average wait time in microseconds
+     */
+    public long getAverageWaitMicros() {
+        final long acquisitions = this.acquisitions.sum();
+        return acquisitions == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(this.waitNanos.sum() / acquisitions);
+    }
+
+    public long getMaxWaitMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(this.maxWaitNanos.get());
+    }
+}
@@ -25,22 +25,17 @@
 package org.spongepowered.common.service.sql;
 
 import com.google.common.base.Objects;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.cache.RemovalListener;
-import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
-import org.h2.engine.ConnectionInfo;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.service.sql.SqlService;
 import org.spongepowered.api.util.annotation.NonnullByDefault;
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.config.SpongeConfigManager;
-import org.spongepowered.common.config.SpongeConfigRoot;
+import org.spongepowered.common.config.category.SqlCategory;
 
 import java.io.Closeable;
 import java.io.IOException;
@@ -48,15 +43,21 @@
 import java.nio.file.Paths;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
-import java.util.concurrent.ExecutionException;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.sql.DataSource;
 
@@ -76,6 +77,10 @@
 @NonnullByDefault
 public class SqlServiceImpl implements SqlService, Closeable {
 
+    private static final long DEFAULT_CONNECTION_TIMEOUT = 30000;
+    private static final long EVICTION_INTERVAL = 60;
+    private static final long EXECUTOR_SHUTDOWN_TIMEOUT = 10;
+
     static final Map<String, Properties> PROTOCOL_SPECIFIC_PROPS;
     static final Map<String, BiFunction<PluginContainer, String, String>> PATH_CANONICALIZERS;
 
@@ -107,32 +112,10 @@ public class SqlServiceImpl implements SqlService, Closeable {
         });
     }
 
-    private final LoadingCache<ConnectionInfo, HikariDataSource> connectionCache =
-            CacheBuilder.newBuilder().removalListener(new RemovalListener<ConnectionInfo, HikariDataSource>() {
-                @Override
-                public void onRemoval(RemovalNotification<ConnectionInfo, HikariDataSource> notification) {
-                    HikariDataSource source = notification.getValue();
-                    if (source != null) {
-                        source.close();
-                    }
-                }
-            }).build(new CacheLoader<ConnectionInfo, HikariDataSource>() {
-                @Override
-                public HikariDataSource load(@Nonnull ConnectionInfo key) throws Exception {
-                    HikariConfig config = new HikariConfig();
-                    config.setUsername(key.getUser());
-                    config.setPassword(key.getPassword());
-                    config.setDriverClassName(key.getDriverClassName());
-                    // https://github.com/brettwooldridge/HikariCP/wiki/About-Pool-Sizing for info on pool sizing
-                    config.setMaximumPoolSize((Runtime.getRuntime().availableProcessors() * 2) + 1);
-                    Properties driverSpecificProperties = PROTOCOL_SPECIFIC_PROPS.get(key.getDriverClassName());
-                    if (driverSpecificProperties != null) {
-                        config.setDataSourceProperties(driverSpecificProperties);
-                    }
-                    config.setJdbcUrl(key.getAuthlessUrl());
-                    return new HikariDataSource(config);
-                }
-            });
+    private final ConcurrentMap<PoolKey, SqlPool> pools = new ConcurrentHashMap<>();
+    private final ConcurrentMap<PoolKey, ConcurrentMap<String, PluginDataSource>> dataSources = new ConcurrentHashMap<>();
+    private final ConcurrentMap<PluginDataSource, SqlExecutor> executors = new ConcurrentHashMap<>();
+    @Nullable private volatile ScheduledExecutorService evictionExecutor;
 
     @Override
     public DataSource getDataSource(String jdbcConnection) throws SQLException {
@@ -141,27 +124,225 @@ public DataSource getDataSource(String jdbcConnection) throws SQLException {
 
     @Override
     public DataSource getDataSource(@Nullable Object plugin, String jdbcConnection) throws SQLException {
-        jdbcConnection = getConnectionUrlFromAlias(jdbcConnection).orElse(jdbcConnection);
-        PluginContainer container = null;
-        if (plugin != null) {
-            container = Sponge.getPluginManager().fromInstance(plugin).orElseThrow(() -> {
-                return new IllegalArgumentException(
-                        "The provided plugin object does not have an associated plugin container "
-                                + "(in other words, is 'plugin' actually your plugin object?");
+        return getPluginDataSource(plugin == null ? null : getContainer(plugin), jdbcConnection);
+    }
 
-            });
+    /**
+     * Gets the executor running the statements of the plugin against the
+     * given database off the main thread.
+     *
+     * @param plugin The plugin to get the executor for
+     * @param jdbcConnection The jdbc url or alias of the database
+     * @return The executor
+     * @throws SQLException If the connection is invalid
+     */
+    public SqlExecutor getExecutor(Object plugin, String jdbcConnection) throws SQLException {
+        final PluginContainer container = getContainer(plugin);
+        final PluginDataSource dataSource = getPluginDataSource(container, jdbcConnection);
+        final SqlExecutor executor = this.executors.computeIfAbsent(dataSource, source -> {
+            final int batchWindow = SpongeImpl.getGlobalConfig().getConfig().getSql().getBatchWindow();
+            return new SqlExecutor(container.getId(), source, source.getMaxConnections(), batchWindow,
+                    Sponge.getScheduler().createSyncExecutor(plugin));
+        });
+        // The data source may allow more connections since the executor was created
+        executor.ensureThreads(dataSource.getMaxConnections());
+        return executor;
+    }
+
+    private static PluginContainer getContainer(Object plugin) {
+        return Sponge.getPluginManager().fromInstance(plugin).orElseThrow(() -> {
+            return new IllegalArgumentException(
+                    "The provided plugin object does not have an associated plugin container "
+                            + "(in other words, is 'plugin' actually your plugin object?");
+
+        });
+    }
+
+    private PluginDataSource getPluginDataSource(@Nullable PluginContainer container, String jdbcConnection) throws SQLException {
+        final Optional<String> aliasedConnection = getConnectionUrlFromAlias(jdbcConnection);
+        @Nullable final String alias = aliasedConnection.isPresent() ? jdbcConnection : null;
+        final ConnectionInfo info = ConnectionInfo.fromUrl(container, aliasedConnection.orElse(jdbcConnection));
+        final PoolKey key = new PoolKey(info);
+        final SqlCategory config = SpongeImpl.getGlobalConfig().getConfig().getSql();
+        final int poolSize = getPoolSize(config, alias);
+        final String owner = container == null ? "" : container.getId();
+        final PluginDataSource source = this.dataSources.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).computeIfAbsent(owner, o -> {
+            final PluginDataSource.PoolSupplier pools = size -> retainPool(key, info, size);
+            return new PluginDataSource(owner, pools, poolSize, config.getPluginConnectionQuota(), DEFAULT_CONNECTION_TIMEOUT);
+        });
+        // The plugin may have used another alias with a smaller pool size first
+        source.ensurePoolSize(poolSize);
+        return source;
+    }
+
+    private static int getPoolSize(SqlCategory config, @Nullable String alias) {
+        final Integer aliasSize = alias == null ? null : config.getPoolSizes().get(alias);
+        if (aliasSize != null && aliasSize > 0) {
+            return aliasSize;
+        }
+        if (config.getMaxPoolSize() > 0) {
+            return config.getMaxPoolSize();
+        }
+        // https://github.com/brettwooldridge/HikariCP/wiki/About-Pool-Sizing for info on pool sizing
+        return (Runtime.getRuntime().availableProcessors() * 2) + 1;
+    }
+
+    private SqlPool retainPool(PoolKey key, ConnectionInfo info, int poolSize) throws SQLException {
+        while (true) {
+            final SqlPool pool;
+            try {
+                pool = this.pools.computeIfAbsent(key, k -> createPool(k, info, poolSize));
+            } catch (RuntimeException e) {
+                throw new SQLException("Unable to create a connection pool for " + info.getAuthlessUrl(), e);
+            }
+            // The pool may have been closed while idle between the lookup and this call
+            if (pool.retain()) {
+                // The pool may have been created for a smaller pool size
+                pool.ensureMaximumPoolSize(poolSize);
+                return pool;
+            }
+        }
+    }
+
+    private SqlPool createPool(PoolKey key, ConnectionInfo info, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setUsername(info.getUser());
+        config.setPassword(info.getPassword());
+        config.setDriverClassName(info.getDriverClassName());
+        config.setMaximumPoolSize(poolSize);
+        config.setConnectionTimeout(DEFAULT_CONNECTION_TIMEOUT);
+        Properties driverSpecificProperties = PROTOCOL_SPECIFIC_PROPS.get(info.getDriverClassName());
+        if (driverSpecificProperties != null) {
+            config.setDataSourceProperties(driverSpecificProperties);
+        }
+        config.setJdbcUrl(info.getAuthlessUrl());
+        scheduleEviction();
+        return new SqlPool(key, info.getAuthlessUrl(), new HikariDataSource(config));
+    }
+
+    private void scheduleEviction() {
+        if (this.evictionExecutor != null) {
+            return;
         }
-        ConnectionInfo info = ConnectionInfo.fromUrl(container, jdbcConnection);
-        try {
-            return this.connectionCache.get(info);
-        } catch (ExecutionException e) {
-            throw new SQLException(e);
+        synchronized (this) {
+            if (this.evictionExecutor == null) {
+                final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder().setNameFormat("Sponge SQL Pool Eviction").setDaemon(true).build());
+                executor.scheduleWithFixedDelay(this::evictIdlePools, EVICTION_INTERVAL, EVICTION_INTERVAL, TimeUnit.SECONDS);
+                this.evictionExecutor = executor;
+            }
         }
     }
 
+    private void evictIdlePools() {
+        final int idleTimeout = SpongeImpl.getGlobalConfig().getConfig().getSql().getPoolIdleTimeout();
+        if (idleTimeout <= 0) {
+            return;
+        }
+        final long idleNanos = TimeUnit.SECONDS.toNanos(idleTimeout);
+        for (PoolKey key : this.pools.keySet()) {
+            this.pools.computeIfPresent(key, (k, pool) -> pool.closeIfIdle(idleNanos) ? null : pool);
+        }
+    }
+
+    /**
+     * Gets the connection pools that are currently open.
+     *
+     * @return The open pools
+     */
+    public Collection<SqlPool> getPools() {
+        return Collections.unmodifiableCollection(this.pools.values());
+    }
+
+    /**
+     * Gets the amount of connections each plugin currently holds from the
+     * given pool, only counting plugins that are limited by a quota.
+     *
+     * @param pool The pool
+     * @return The leased connections by plugin id
+     */
+    public Map<String, Integer> getLeasedConnections(SqlPool pool) {
+        final Map<String, Integer> leased = new TreeMap<>();
+        final Map<String, PluginDataSource> sources = this.dataSources.get(pool.getKey());
+        if (sources != null) {
+            for (PluginDataSource source : sources.values()) {
+                if (!source.getOwner().isEmpty()) {
+                    leased.put(source.getOwner(), source.getLeasedConnections());
+                }
+            }
+        }
+        return leased;
+    }
+
+    /**
+     * Runs the queued statements of all executors, waiting for them to
+     * finish, and closes all pools. Called once the server stopped, new
+     * executors and pools are created if the service is used again.
+     *
+     * @throws IOException Never, required by {@link Closeable}
+     */
     @Override
     public void close() throws IOException {
-        this.connectionCache.invalidateAll();
+        for (SqlExecutor executor : this.executors.values()) {
+            try {
+                executor.shutdown(EXECUTOR_SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        this.executors.clear();
+        final ScheduledExecutorService executor = this.evictionExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+            this.evictionExecutor = null;
+        }
+        for (PoolKey key : this.pools.keySet()) {
+            this.pools.computeIfPresent(key, (k, pool) -> {
+                pool.close();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * The identity of a connection pool, connections to the same database
+     * with the same credentials share a pool regardless of the url they
+     * were requested with.
+     */
+    static final class PoolKey {
+
+        @Nullable private final String user;
+        @Nullable private final String password;
+        private final String driverClassName;
+        private final String authlessUrl;
+
+        PoolKey(ConnectionInfo info) {
+            this.user = info.getUser();
+            this.password = info.getPassword();
+            this.driverClassName = info.getDriverClassName();
+            this.authlessUrl = info.getAuthlessUrl();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PoolKey that = (PoolKey) o;
+            return Objects.equal(this.user, that.user)
+                    && Objects.equal(this.password, that.password)
+                    && Objects.equal(this.driverClassName, that.driverClassName)
+                    && Objects.equal(this.authlessUrl, that.authlessUrl);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.user, this.password, this.driverClassName, this.authlessUrl);
+        }
     }
 
     public static class ConnectionInfo {
@@ -0,0 +1,297 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.user;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.mojang.authlib.GameProfile;
+import net.minecraft.server.management.UserListBansEntry;
+import net.minecraft.server.management.UserListWhitelistEntry;
+import net.minecraft.world.storage.SaveHandler;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.entity.living.player.User;
+import org.spongepowered.api.profile.GameProfileCache;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.world.WorldManager;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * An index of the profiles of all users known to the server, that is users
+ * that have player data, are whitelisted or banned. The index is built from
+ * these sources on first use and kept up to date as players log in and
+ * profiles are whitelisted or banned, so user lookups don't have to go
+ * through the player data directory and the user lists every time.
+ *
+ * <p>Names aren't unique, a user may have taken the name of another user
+ * that didn't log in since, so each name maps to all users known by it,
+ * the user that took the name last first.</p>
+ */
+public final class UserIndex {
+
+    private static final Map<UUID, GameProfile> profiles = new ConcurrentHashMap<>();
+    // Lower case names, sorted for prefix matching
+    private static final ConcurrentNavigableMap<String, Set<UUID>> names = new ConcurrentSkipListMap<>();
+    private static volatile boolean built;
+
+    private UserIndex() {
+    }
+
+    /**
+     * Adds the profile of a user that is now known to the server, e.g.
+     * because the user logged in or was whitelisted.
+     *
+     * @param profile The profile
+     */
+    public static void add(GameProfile profile) {
+        if (profile.getId() != null) {
+            profiles.compute(profile.getId(), (uniqueId, previous) -> {
+                index(previous, profile);
+                return profile;
+            });
+        }
+    }
+
+    /**
+     * Updates the profile of a user if the user is known to the server, e.g.
+     * because the name of the user changed.
+     *
+     * @param profile The profile
+     */
+    public static void update(GameProfile profile) {
+        if (profile.getId() != null) {
+            profiles.computeIfPresent(profile.getId(), (uniqueId, previous) -> {
+                index(previous, profile);
+                return profile;
+            });
+        }
+    }
+
+    /**
+     * Removes a user that was removed from the whitelist or the ban list,
+     * unless the user is still known to the server otherwise.
+     *
+     * @param uniqueId The unique id of the user
+     */
+    public static void removeIfUnknown(UUID uniqueId) {
+        if (!UserDiscoverer.isKnown(uniqueId)) {
+            remove(uniqueId);
+        }
+    }
+
+    /**
+     * Forgets all users, the index is built again the next time it is used.
+     */
+    public static void clear() {
+        synchronized (profiles) {
+            built = false;
+            profiles.clear();
+            names.clear();
+        }
+    }
+
+    /**
+     * Gets the profiles of all users whose name starts with the given
+     * prefix, ignoring case.
+     *
+     * @param prefix The prefix
+     * @return The matching profiles
+     */
+    public static Collection<org.spongepowered.api.profile.GameProfile> match(String prefix) {
+        ensureBuilt();
+        final String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        final ImmutableList.Builder<org.spongepowered.api.profile.GameProfile> builder = ImmutableList.builder();
+        for (Set<UUID> uniqueIds : names.subMap(lowerPrefix, lowerPrefix + Character.MAX_VALUE).values()) {
+            for (UUID uniqueId : uniqueIds) {
+                final GameProfile profile = profiles.get(uniqueId);
+                if (profile != null) {
+                    builder.add((org.spongepowered.api.profile.GameProfile) profile);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    static void remove(UUID uniqueId) {
+        profiles.computeIfPresent(uniqueId, (key, previous) -> {
+            index(previous, null);
+            return null;
+        });
+    }
+
+    @Nullable
+    static org.spongepowered.api.profile.GameProfile getByName(String name) {
+        ensureBuilt();
+        @Nullable UUID current = null;
+        final Set<UUID> uniqueIds = names.get(name.toLowerCase(Locale.ROOT));
+        if (uniqueIds != null && uniqueIds.size() > 1) {
+            // The profile cache knows who holds the name now, if the name was looked up recently
+            current = ((GameProfileCache) SpongeImpl.getServer().getPlayerProfileCache()).getByName(name)
+                    .map(org.spongepowered.api.profile.GameProfile::getUniqueId)
+                    .orElse(null);
+        }
+        final UUID uniqueId = getIdByName(name, current);
+        if (uniqueId != null) {
+            final GameProfile profile = profiles.get(uniqueId);
+            if (profile != null) {
+                return (org.spongepowered.api.profile.GameProfile) profile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the unique id of the user that holds the name, ignoring case. If
+     * the name is shared, the current holder is preferred if it is one of
+     * the users, otherwise the user that took the name last.
+     *
+     * @param name The name
+     * @param current The unique id of the current holder, if known
+     * @return The unique id, or null if no user is known by the name
+     */
+    @Nullable
+    static UUID getIdByName(String name, @Nullable UUID current) {
+        final Set<UUID> uniqueIds = names.get(name.toLowerCase(Locale.ROOT));
+        if (uniqueIds == null) {
+            return null;
+        }
+        if (current != null && uniqueIds.contains(current)) {
+            return current;
+        }
+        return uniqueIds.iterator().next();
+    }
+
+    static Collection<org.spongepowered.api.profile.GameProfile> getAll() {
+        ensureBuilt();
+        final ImmutableSet.Builder<org.spongepowered.api.profile.GameProfile> builder = ImmutableSet.builder();
+        for (GameProfile profile : profiles.values()) {
+            builder.add((org.spongepowered.api.profile.GameProfile) profile);
+        }
+        return builder.build();
+    }
+
+    // Only called while holding the profile entry. The sets are immutable
+    // because the map functions may be applied more than once.
+    private static void index(@Nullable GameProfile previous, @Nullable GameProfile profile) {
+        if (previous != null && previous.getName() != null) {
+            final UUID uniqueId = previous.getId();
+            names.computeIfPresent(previous.getName().toLowerCase(Locale.ROOT), (name, uniqueIds) -> {
+                if (!uniqueIds.contains(uniqueId)) {
+                    return uniqueIds;
+                }
+                final ImmutableSet.Builder<UUID> builder = ImmutableSet.builder();
+                for (UUID other : uniqueIds) {
+                    if (!other.equals(uniqueId)) {
+                        builder.add(other);
+                    }
+                }
+                final Set<UUID> remaining = builder.build();
+                return remaining.isEmpty() ? null : remaining;
+            });
+        }
+        if (profile != null && profile.getName() != null && !profile.getName().isEmpty()) {
+            // Newest first, the user that took the name last is most likely to hold it now
+            names.merge(profile.getName().toLowerCase(Locale.ROOT), ImmutableSet.of(profile.getId()),
+                    (uniqueIds, added) -> ImmutableSet.<UUID>builder().addAll(added).addAll(uniqueIds).build());
+        }
+    }
+
+    private static void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        synchronized (profiles) {
+            if (built) {
+                return;
+            }
+            Preconditions.checkState(Sponge.isServerAvailable(), "Server is not available!");
+
+            // Users that were looked up or created by plugins
+            for (User user : UserDiscoverer.getCachedUsers()) {
+                addIfAbsent((GameProfile) user.getProfile());
+            }
+
+            // All known profiles from the data files
+            SaveHandler saveHandler = (SaveHandler) WorldManager.getWorldByDimensionId(0).get().getSaveHandler();
+            String[] uuids = saveHandler.getAvailablePlayerDat();
+            for (String playerUuid : uuids) {
+
+                // If the filename contains a period, we can fail fast. Vanilla code fixes the Strings that have ".dat" to strip that out
+                // before passing that back in getAvailablePlayerDat. It doesn't remove non ".dat" filenames from the list.
+                if (playerUuid.contains(".")) {
+                    continue;
+                }
+
+                // At this point, we have a filename who has no extension. This doesn't mean it is actually a UUID. We trap the exception and
+                // ignore any filenames that fail the UUID check.
+                UUID uuid;
+                try {
+                    uuid = UUID.fromString(playerUuid);
+                } catch (Exception ex) {
+                    continue;
+                }
+
+                final GameProfile profile = SpongeImpl.getServer().getPlayerProfileCache().getProfileByUUID(uuid);
+                if (profile != null) {
+                    addIfAbsent(profile);
+                }
+            }
+
+            // All whitelisted users
+            for (UserListWhitelistEntry entry : SpongeImpl.getServer().getPlayerList().getWhitelistedPlayers().getValues().values()) {
+                addIfAbsent(entry.value);
+            }
+
+            // All banned users
+            for (UserListBansEntry entry : SpongeImpl.getServer().getPlayerList().getBannedPlayers().getValues().values()) {
+                if (entry != null) {
+                    addIfAbsent(entry.value);
+                }
+            }
+
+            built = true;
+        }
+    }
+
+    // Profiles added while building are more recent than the stored ones
+    private static void addIfAbsent(@Nullable GameProfile profile) {
+        if (profile != null && profile.getId() != null) {
+            profiles.computeIfAbsent(profile.getId(), uniqueId -> {
+                index(null, profile);
+                return profile;
+            });
+        }
+    }
+}
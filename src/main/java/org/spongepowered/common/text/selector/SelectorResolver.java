@@ -28,9 +28,16 @@
 import static org.spongepowered.common.util.OptionalUtils.asSet;
 
 import com.flowpowered.math.vector.Vector3d;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.data.manipulator.mutable.DisplayNameData;
 import org.spongepowered.api.data.manipulator.mutable.entity.ExperienceHolderData;
@@ -65,11 +72,15 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 /**
  * A resolver that acts like Vanilla Minecraft in many regards.
  */
@@ -116,6 +127,9 @@ private static <I, R> Predicate<I> requireTypePredicate(Class<I> inputType, fina
     private final Selector selector;
     private final Predicate<Entity> selectorFilter;
     private final boolean alwaysUsePosition;
+    // The area the selected entities must be in, if restricted by the arguments
+    @Nullable private final double[] searchBounds;
+    private final Class<? extends net.minecraft.entity.Entity> candidateClass;
 
     public SelectorResolver(Collection<? extends Extent> extents, Selector selector, boolean force) {
         this(extents, null, null, selector, force);
@@ -135,14 +149,16 @@ private SelectorResolver(Collection<? extends Extent> extents, Vector3d position
         this.position = position == null ? ORIGIN : position;
         this.original = Optional.ofNullable(original);
         this.selector = checkNotNull(selector);
-        this.selectorFilter = makeFilter();
+        final Vector3d filterPosition = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
+        this.selectorFilter = makeFilter(filterPosition);
+        this.searchBounds = makeSearchBounds(filterPosition);
+        this.candidateClass = makeCandidateClass();
         this.alwaysUsePosition = force;
     }
 
-    private Predicate<Entity> makeFilter() {
+    private Predicate<Entity> makeFilter(Vector3d position) {
         // for easier reading
         final Selector sel = this.selector;
-        Vector3d position = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
         List<Predicate<Entity>> filters = Lists.newArrayList();
         addTypeFilters(filters);
         addDimensionFilters(position, filters);
@@ -167,6 +183,70 @@ private Predicate<Entity> makeFilter() {
         return Functional.predicateAnd(filters);
     }
 
+    /**
+     * Creates the bounds of the area that is restricted by the radius and
+     * dimension arguments as {minX, minY, minZ, maxX, maxY, maxZ}.
+     *
+     * @param position The position of the selector
+     * @return The bounds, or null if the horizontal area isn't restricted
+     */
+    @Nullable
+    private double[] makeSearchBounds(Vector3d position) {
+        final double[] bounds = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        final Optional<Integer> radiusMax = this.selector.get(ArgumentTypes.RADIUS.maximum());
+        if (radiusMax.isPresent()) {
+            for (int axis = 0; axis < 3; axis++) {
+                bounds[axis] = get(position, axis) - radiusMax.get();
+                bounds[axis + 3] = get(position, axis) + radiusMax.get();
+            }
+        }
+        final Vector3d boxDimensions = getPositionOrDefault(ORIGIN, ArgumentTypes.DIMENSION);
+        final Vector3d boxMin = position.min(position.add(boxDimensions));
+        final Vector3d boxMax = position.max(position.add(boxDimensions));
+        final ArgumentType<?>[] dimensionTypes = {ArgumentTypes.DIMENSION.x(), ArgumentTypes.DIMENSION.y(), ArgumentTypes.DIMENSION.z()};
+        for (int axis = 0; axis < 3; axis++) {
+            if (this.selector.has(dimensionTypes[axis])) {
+                bounds[axis] = Math.max(bounds[axis], get(boxMin, axis));
+                bounds[axis + 3] = Math.min(bounds[axis + 3], get(boxMax, axis));
+            }
+        }
+        if (Double.isInfinite(bounds[0]) || Double.isInfinite(bounds[2]) || Double.isInfinite(bounds[3]) || Double.isInfinite(bounds[5])) {
+            return null;
+        }
+        return bounds;
+    }
+
+    private static double get(Vector3d vector, int axis) {
+        return axis == 0 ? vector.getX() : axis == 1 ? vector.getY() : vector.getZ();
+    }
+
+    /**
+     * Gets the most specific entity class all selected entities must be
+     * instances of, to look up the candidates in the class maps of the
+     * chunks.
+     *
+     * @return The entity class
+     */
+    private Class<? extends net.minecraft.entity.Entity> makeCandidateClass() {
+        final SelectorType selectorType = this.selector.getType();
+        if (selectorType == SelectorTypes.ALL_PLAYERS || selectorType == SelectorTypes.NEAREST_PLAYER) {
+            return EntityPlayer.class;
+        }
+        final Optional<Invertible<EntityType>> type = this.selector.getArgument(ArgumentTypes.ENTITY_TYPE);
+        if (type.isPresent() && !type.get().isInverted()) {
+            try {
+                final Class<?> entityClass = type.get().getValue().getEntityClass();
+                if (net.minecraft.entity.Entity.class.isAssignableFrom(entityClass)) {
+                    return entityClass.asSubclass(net.minecraft.entity.Entity.class);
+                }
+            } catch (UnsupportedOperationException e) {
+                // The unknown entity type
+            }
+        }
+        return net.minecraft.entity.Entity.class;
+    }
+
     private void addDimensionFilters(final Vector3d position, List<Predicate<Entity>> filters) {
         Selector sel = this.selector;
         Vector3d boxDimensions = getPositionOrDefault(ORIGIN, ArgumentTypes.DIMENSION);
@@ -347,30 +427,101 @@ public Set<Entity> resolve() {
         }
         int maxToSelect = this.selector.get(ArgumentTypes.COUNT).orElse(defaultCount);
         Set<? extends Extent> extents = getExtentSet();
+        if (selectorType == SelectorTypes.RANDOM) {
+            return resolveRandom(extents, maxToSelect);
+        }
         int count = 0;
         ImmutableSet.Builder<Entity> entities = ImmutableSet.builder();
         for (Extent extent : extents) {
-            Collection<Entity> allEntities = extent.getEntities();
-            if (selectorType == SelectorTypes.RANDOM) {
-                List<Entity> entityList = new ArrayList<>(allEntities);
-                Collections.shuffle(entityList);
-                allEntities = entityList;
-            }
-
-            for (Entity e : allEntities) {
+            for (Entity e : getCandidates(extent)) {
                 if (!this.selectorFilter.test(e)) {
                     continue;
                 }
                 entities.add(e);
                 count++;
-                if (maxToSelect != 0 && count > maxToSelect) {
-                    break;
+                if (maxToSelect != 0 && count >= maxToSelect) {
+                    return entities.build();
                 }
             }
         }
         return entities.build();
     }
 
+    private Set<Entity> resolveRandom(Set<? extends Extent> extents, int maxToSelect) {
+        // Reservoir sampling, every matching entity has the same chance to be selected
+        final Random random = ThreadLocalRandom.current();
+        final List<Entity> selected = new ArrayList<>();
+        int matched = 0;
+        for (Extent extent : extents) {
+            for (Entity e : getCandidates(extent)) {
+                if (!this.selectorFilter.test(e)) {
+                    continue;
+                }
+                matched++;
+                if (maxToSelect == 0 || selected.size() < maxToSelect) {
+                    selected.add(e);
+                } else {
+                    final int index = random.nextInt(matched);
+                    if (index < maxToSelect) {
+                        selected.set(index, e);
+                    }
+                }
+            }
+        }
+        Collections.shuffle(selected, random);
+        return ImmutableSet.copyOf(selected);
+    }
+
+    /**
+     * Gets the entities of the extent which may be selected, these are only
+     * the entities in the chunks within the search bounds if possible.
+     *
+     * @param extent The extent
+     * @return The candidate entities
+     */
+    @SuppressWarnings("unchecked")
+    private Iterable<Entity> getCandidates(Extent extent) {
+        if (!(extent instanceof WorldServer)) {
+            return extent.getEntities();
+        }
+        final WorldServer world = (WorldServer) extent;
+        final double[] bounds = this.searchBounds;
+        if (bounds == null) {
+            if (this.candidateClass == EntityPlayer.class) {
+                return (Iterable<Entity>) (Iterable<?>) ImmutableList.copyOf(world.playerEntities);
+            }
+            return extent.getEntities();
+        }
+        // Entities are only moved to the chunk they are in when they are updated
+        final int minChunkX = MathHelper.floor((bounds[0] - SelectorSections.MAX_ENTITY_RADIUS) / 16.0D);
+        final int minChunkZ = MathHelper.floor((bounds[2] - SelectorSections.MAX_ENTITY_RADIUS) / 16.0D);
+        final int maxChunkX = MathHelper.floor((bounds[3] + SelectorSections.MAX_ENTITY_RADIUS) / 16.0D);
+        final int maxChunkZ = MathHelper.floor((bounds[5] + SelectorSections.MAX_ENTITY_RADIUS) / 16.0D);
+        final long chunkCount = ((long) maxChunkX - minChunkX + 1) * ((long) maxChunkZ - minChunkZ + 1);
+        if (chunkCount > world.getChunkProvider().getLoadedChunkCount()) {
+            return extent.getEntities();
+        }
+        // The height is infinite if it isn't restricted by the arguments
+        final int minSection = SelectorSections.getMinSection(bounds[1]);
+        final int maxSection = SelectorSections.getMaxSection(bounds[4]);
+        final List<Iterable<? extends net.minecraft.entity.Entity>> candidates = new ArrayList<>();
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                final Chunk chunk = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    continue;
+                }
+                final ClassInheritanceMultiMap<net.minecraft.entity.Entity>[] sections = chunk.getEntityLists();
+                for (int section = minSection; section <= maxSection; section++) {
+                    if (!sections[section].isEmpty()) {
+                        candidates.add(ImmutableList.copyOf(sections[section].getByClass(this.candidateClass)));
+                    }
+                }
+            }
+        }
+        return (Iterable<Entity>) (Iterable<?>) Iterables.concat(candidates);
+    }
+
     private Set<? extends Extent> getExtentSet() {
         if (!this.alwaysUsePosition && Collections.disjoint(getArgumentTypes(this.selector.getArguments()), LOCATION_BASED_ARGUMENTS)) {
             return ImmutableSet.copyOf(SpongeImpl.getGame().getServer().getWorlds());
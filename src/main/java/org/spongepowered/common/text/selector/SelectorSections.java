@@ -0,0 +1,68 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.text.selector;
+
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * The chunk sections a selector has to search for the entities between two
+ * heights.
+ */
+final class SelectorSections {
+
+    // The distance an entity may be away from the chunk it is stored in, as used by vanilla
+    static final double MAX_ENTITY_RADIUS = 2.0D;
+    private static final double MAX_Y = 255.0D;
+
+    private SelectorSections() {
+    }
+
+    /**
+     * Gets the lowest section to search, the height may be infinite if the
+     * selector doesn't restrict it.
+     *
+     * @param minY The lowest height of the entities
+     * @return The section index
+     */
+    static int getMinSection(double minY) {
+        return getSection(minY - MAX_ENTITY_RADIUS);
+    }
+
+    /**
+     * Gets the highest section to search, the height may be infinite if the
+     * selector doesn't restrict it.
+     *
+     * @param maxY The highest height of the entities
+     * @return The section index
+     */
+    static int getMaxSection(double maxY) {
+        return getSection(maxY + MAX_ENTITY_RADIUS);
+    }
+
+    // Clamped before flooring, which overflows for heights beyond the int range
+    private static int getSection(double y) {
+        return MathHelper.floor(MathHelper.clamp(y, 0.0D, MAX_Y) / 16.0D);
+    }
+}
@@ -39,6 +39,8 @@
 import java.util.Arrays;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 /**
  * A handy utility for doing some neat things with generics and reflection.
  * This is primarily used for {@link ImmutableDataCachingUtil} to create
@@ -116,7 +118,34 @@ public static <T> Constructor<T> findConstructor(final Class<T> objectClass, Obj
         throw new IllegalArgumentException("Applicable constructor not found for class: " + objectClass.getCanonicalName() + " with args: " + Arrays.toString(args));
     }
 
-    private static List<Object> deconstructArray(Object[] objects) {
+    /**
+     * Finds a public constructor taking exactly the given arguments, without
+     * attempting to flatten any array arguments.
+     *
+     * @param objectClass The class to construct
+     * @param args The arguments
+     * @return The constructor, or null if none matches
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> Constructor<T> findExactConstructor(final Class<T> objectClass, final Object[] args) {
+        dance:
+        for (final Constructor<?> ctor : objectClass.getConstructors()) {
+            final Class<?>[] paramTypes = ctor.getParameterTypes();
+            if (paramTypes.length != args.length) {
+                continue;
+            }
+            for (int i = 0; i < paramTypes.length; i++) {
+                if (!isAssignable(args[i] == null ? null : args[i].getClass(), paramTypes[i], true)) {
+                    continue dance;
+                }
+            }
+            return (Constructor<T>) ctor;
+        }
+        return null;
+    }
+
+    public static List<Object> deconstructArray(Object[] objects) {
         final List<Object> list = new ArrayList<>();
         for (Object object : objects) {
             if (object == null) {
@@ -26,24 +26,41 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Nullable;
 
 import org.spongepowered.common.SpongeImpl;
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
-import com.google.common.io.Files;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.io.CountingInputStream;
 import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 
 /**
@@ -59,16 +76,40 @@
  * here :
  * 
  * https://github.com/MinecraftForge/MinecraftForge/blob/1.8.9/src/main/java/net/minecraftforge/common/UsernameCache.java
+ * <p>
+ * Unlike Forge, the cache is stored as a binary log of changes. Saving only
+ * appends the changes since the last save, the log is rewritten in the
+ * background once most of its records are outdated.
  */
 public final class SpongeUsernameCache {
 
     // Thread-safe map
-    private static Map<UUID, String> map = new ConcurrentHashMap<>();
+    private static final Map<UUID, String> map = new ConcurrentHashMap<>();
 
     private static final Charset charset = Charsets.UTF_8;
 
-    private static final File saveFile = new File(".", "usernamecache.json");
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final File saveFile = new File(".", "usernamecache.log");
+    private static final File legacySaveFile = new File(".", "usernamecache.json");
+    private static final Gson gson = new Gson();
+
+    private static final int MAGIC = 0x5355434C; // SUCL
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final byte SET = 1;
+    private static final byte REMOVE = 2;
+    // The log is rewritten once it has twice as many records as the cache has entries
+    private static final long MIN_COMPACT_RECORDS = 4096;
+
+    private static final Interner<String> names = Interners.newWeakInterner();
+    private static final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean saveQueued = new AtomicBoolean();
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("Sponge Username Cache Saver")
+            .setDaemon(true)
+            .build());
+
+    private static volatile long logRecords;
+    private static volatile boolean compactLog;
 
     private static boolean loaded = false;
 
@@ -91,7 +132,14 @@ public static void setUsername(UUID uuid, String username) {
             return;
         }
 
-        map.put(uuid, username);
+        final String name = names.intern(username);
+        // Record the change while holding the entry, so changes of the same player are logged in order
+        map.compute(uuid, (key, previous) -> {
+            if (!name.equals(previous)) {
+                changes.add(new Change(key, name));
+            }
+            return name;
+        });
     }
 
     /**
@@ -107,11 +155,13 @@ public static boolean removeUsername(UUID uuid) {
             load();
         }
 
-        if (map.remove(uuid) != null) {
-            return true;
-        }
-
-        return false;
+        final boolean[] removed = new boolean[1];
+        map.computeIfPresent(uuid, (key, previous) -> {
+            changes.add(new Change(key, null));
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
     }
 
     /**
@@ -164,45 +214,168 @@ public static Map<UUID, String> getMap() {
     }
 
     /**
-     * Save the cache to file
+     * Save the cache to file. The changes are written in the background,
+     * saves requested before the write starts are written together.
      */
     public static void save() {
         if (!loaded) {
             load();
         }
 
-        try {
-            // Make sure we don't save when another thread is still saving
-            Files.write(gson.toJson(map), saveFile, charset);
-        } catch (IOException e) {
-            SpongeImpl.getLogger().error("Failed to save username cache to file!", e);
+        if (saveQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                // Changes from here on need another save
+                saveQueued.set(false);
+                write();
+            });
         }
     }
 
+    /**
+     * Waits until all queued saves are written.
+     */
+    public static void awaitPendingWrites() {
+        CompletableFuture.runAsync(() -> {}, executor).join();
+    }
+
     /**
      * Load the cache from file
      */
     public static void load() {
         loaded = true;
-        if (!saveFile.exists()) return;
+        if (!saveFile.exists()) {
+            loadLegacy();
+            // Create the log on the next save
+            compactLog = true;
+            return;
+        }
 
-        try {
+        try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(saveFile)));
+                DataInputStream in = new DataInputStream(counter)) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unknown username cache format");
+            }
+            long records = 0;
+            long length = HEADER_SIZE;
+            try {
+                while (true) {
+                    final byte type = in.readByte();
+                    final UUID uuid = new UUID(in.readLong(), in.readLong());
+                    if (type == SET) {
+                        map.put(uuid, names.intern(in.readUTF()));
+                    } else if (type == REMOVE) {
+                        map.remove(uuid);
+                    } else {
+                        break;
+                    }
+                    records++;
+                    length = counter.getCount();
+                }
+            } catch (EOFException ignored) {
+                // End of the log
+            }
+            logRecords = records;
+            if (length != saveFile.length()) {
+                // The last save didn't finish, nothing may be appended to a partial record
+                SpongeImpl.getLogger().warn("The username cache file ends with an incomplete record, it will be rewritten.");
+                compactLog = true;
+            }
+        } catch (IOException e) {
+            SpongeImpl.getLogger().error("Failed to read username cache file from disk, deleting file", e);
+            saveFile.delete();
+            compactLog = true;
+        }
+    }
 
-            String json = Files.toString(saveFile, charset);
+    private static void loadLegacy() {
+        if (!legacySaveFile.exists()) {
+            return;
+        }
+
+        try {
+            String json = new String(Files.readAllBytes(legacySaveFile.toPath()), charset);
             Type type = new TypeToken<Map<UUID, String>>() { private static final long serialVersionUID = 1L; }.getType();
 
-            map = gson.fromJson(json, type);
+            @Nullable Map<UUID, String> legacyMap = gson.fromJson(json, type);
+            // Can sometimes occur when the json file is malformed
+            if (legacyMap != null) {
+                for (Map.Entry<UUID, String> entry : legacyMap.entrySet()) {
+                    map.put(entry.getKey(), names.intern(entry.getValue()));
+                }
+            }
         } catch (JsonSyntaxException e) {
-            SpongeImpl.getLogger().error("Could not parse username cache file as valid json, deleting file", e);
-            saveFile.delete();
+            SpongeImpl.getLogger().error("Could not parse username cache file as valid json", e);
         } catch (IOException e) {
-            SpongeImpl.getLogger().error("Failed to read username cache file from disk, deleting file", e);
-            saveFile.delete();
-        } finally {
-            // Can sometimes occur when the json file is malformed
-            if (map == null) {
-                map = Maps.newHashMap();
+            SpongeImpl.getLogger().error("Failed to read username cache file from disk", e);
+        }
+    }
+
+    private static void write() {
+        try {
+            if (compactLog) {
+                compact();
+            }
+            if (!changes.isEmpty()) {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(saveFile, true)))) {
+                    Change change;
+                    while ((change = changes.poll()) != null) {
+                        writeRecord(out, change.uuid, change.name);
+                        logRecords++;
+                    }
+                }
             }
+            if (logRecords > MIN_COMPACT_RECORDS && logRecords > map.size() * 2L) {
+                compact();
+            }
+        } catch (IOException e) {
+            SpongeImpl.getLogger().error("Failed to save username cache to file!", e);
+            // The log may end with a partial record or miss changes, rewrite it from the cache
+            compactLog = true;
+        }
+    }
+
+    /**
+     * Rewrites the log with one record per cached player. Changes that are
+     * still queued are appended afterwards, replaying them again is harmless.
+     */
+    private static void compact() throws IOException {
+        final File tempFile = new File(saveFile.getParentFile(), saveFile.getName() + ".tmp");
+        long records = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (Map.Entry<UUID, String> entry : map.entrySet()) {
+                writeRecord(out, entry.getKey(), entry.getValue());
+                records++;
+            }
+        }
+        try {
+            Files.move(tempFile.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        logRecords = records;
+        compactLog = false;
+    }
+
+    private static void writeRecord(DataOutputStream out, UUID uuid, @Nullable String name) throws IOException {
+        out.writeByte(name == null ? REMOVE : SET);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+        if (name != null) {
+            out.writeUTF(name);
+        }
+    }
+
+    private static final class Change {
+
+        final UUID uuid;
+        // Null if the player was removed
+        @Nullable final String name;
+
+        Change(UUID uuid, @Nullable String name) {
+            this.uuid = uuid;
+            this.name = name;
         }
     }
-}
\ No newline at end of file
+}
@@ -24,8 +24,10 @@
  */
 package org.spongepowered.common.util;
 
+import com.mojang.authlib.GameProfile;
 import net.minecraft.server.management.UserList;
 import net.minecraft.server.management.UserListEntry;
+import org.spongepowered.common.service.user.UserIndex;
 
 import java.io.IOException;
 
@@ -34,6 +36,9 @@ public class UserListUtils {
     @SuppressWarnings({"unchecked", "rawtypes"})
     public static void addEntry(UserList list, UserListEntry entry) {
         list.getValues().put(list.getObjectKey(entry.getValue()), entry);
+        if (entry.getValue() instanceof GameProfile) {
+            UserIndex.add((GameProfile) entry.getValue());
+        }
 
         try {
             list.writeChanges();
@@ -46,6 +51,9 @@ public static void addEntry(UserList list, UserListEntry entry) {
     @SuppressWarnings({"rawtypes", "unchecked"})
     public static void removeEntry(UserList list, Object object) {
         list.getValues().remove(list.getObjectKey(object));
+        if (object instanceof GameProfile && ((GameProfile) object).getId() != null) {
+            UserIndex.removeIfUnknown(((GameProfile) object).getId());
+        }
 
         try {
             list.writeChanges();
@@ -0,0 +1,164 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.world.Explosion;
+import org.spongepowered.common.event.tracking.PhaseContext;
+import org.spongepowered.common.interfaces.world.IMixinExplosion;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+/**
+ * Collects the explosions of a world while its entities are updated so that
+ * explosions with the same origin, strength and flags, such as stacked
+ * primed TNT, are only computed once. The entity impulse of the remaining
+ * explosion is multiplied by the amount of explosions that were merged into
+ * it.
+ *
+ * <p>Origins are the same if they are in the same cell of a grid of
+ * {@link #ORIGIN_PRECISION} blocks, stacked TNT moved by other explosions or
+ * by water is rarely at exactly the same position. The merged explosion
+ * keeps the origin of the first one.</p>
+ */
+public final class ExplosionCoalescer {
+
+    static final double ORIGIN_PRECISION = 1.0D / 64.0D;
+
+    private final Map<Key, Pending> pending = new LinkedHashMap<>();
+
+    /**
+     * Merges an explosion into an already queued explosion with the same
+     * origin, strength and flags.
+     *
+     * @return The queued explosion, or null if there is none to merge with
+     */
+    @Nullable
+    public Explosion merge(double x, double y, double z, float strength, boolean isFlaming, boolean isSmoking) {
+        final Pending pending = this.pending.get(new Key(x, y, z, strength, isFlaming, isSmoking));
+        if (pending == null) {
+            return null;
+        }
+        final IMixinExplosion explosion = (IMixinExplosion) pending.explosion;
+        explosion.setMergeCount(explosion.getMergeCount() + 1);
+        return pending.explosion;
+    }
+
+    public void queue(Explosion explosion, @Nullable Entity exploder, double x, double y, double z, float strength, boolean isFlaming,
+            boolean isSmoking, @Nullable PhaseContext context) {
+        this.pending.put(new Key(x, y, z, strength, isFlaming, isSmoking), new Pending(explosion, exploder, context));
+    }
+
+    public boolean isEmpty() {
+        return this.pending.isEmpty();
+    }
+
+    /**
+     * Removes all queued explosions, in the order they were queued.
+     */
+    public List<Pending> drain() {
+        final List<Pending> drained = new ArrayList<>(this.pending.values());
+        this.pending.clear();
+        return drained;
+    }
+
+    public static final class Pending {
+
+        private final Explosion explosion;
+        @Nullable private final Entity exploder;
+        @Nullable private final PhaseContext context;
+
+        Pending(Explosion explosion, @Nullable Entity exploder, @Nullable PhaseContext context) {
+            this.explosion = explosion;
+            this.exploder = exploder;
+            this.context = context;
+        }
+
+        public Explosion getExplosion() {
+            return this.explosion;
+        }
+
+        @Nullable
+        public Entity getExploder() {
+            return this.exploder;
+        }
+
+        @Nullable
+        public PhaseContext getContext() {
+            return this.context;
+        }
+    }
+
+    private static final class Key {
+
+        private final long x;
+        private final long y;
+        private final long z;
+        private final float strength;
+        private final boolean isFlaming;
+        private final boolean isSmoking;
+
+        Key(double x, double y, double z, float strength, boolean isFlaming, boolean isSmoking) {
+            this.x = toCell(x);
+            this.y = toCell(y);
+            this.z = toCell(z);
+            this.strength = strength;
+            this.isFlaming = isFlaming;
+            this.isSmoking = isSmoking;
+        }
+
+        private static long toCell(double coordinate) {
+            return (long) Math.floor(coordinate / ORIGIN_PRECISION);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return this.x == other.x
+                    && this.y == other.y
+                    && this.z == other.z
+                    && Float.compare(this.strength, other.strength) == 0
+                    && this.isFlaming == other.isFlaming
+                    && this.isSmoking == other.isSmoking;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.x, this.y, this.z, this.strength, this.isFlaming, this.isSmoking);
+        }
+    }
+}
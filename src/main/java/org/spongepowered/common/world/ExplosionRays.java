@@ -0,0 +1,261 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.Explosion;
+import net.minecraft.world.World;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import javax.annotation.Nullable;
+
+/**
+ * Casts the rays of an explosion to find the blocks it destroys, with the
+ * same results and random number usage as vanilla.
+ *
+ * <p>The ray directions are computed once, and the state and explosion
+ * resistance of each block are only looked up once per explosion even
+ * though many rays pass through the same blocks.</p>
+ */
+public final class ExplosionRays {
+
+    private static final int RAY_GRID_SIZE = 16;
+    private static final double STEP_LENGTH = 0.30000001192092896D;
+    private static final double[] RAY_X;
+    private static final double[] RAY_Y;
+    private static final double[] RAY_Z;
+    private static final ThreadLocal<BlockCache> BLOCK_CACHE = ThreadLocal.withInitial(BlockCache::new);
+
+    static {
+        // The rays go from the center of the explosion to the surface of a 16x16x16 cube, in the order vanilla casts them
+        final int last = RAY_GRID_SIZE - 1;
+        int count = 0;
+        final double[] x = new double[RAY_GRID_SIZE * RAY_GRID_SIZE * RAY_GRID_SIZE];
+        final double[] y = new double[x.length];
+        final double[] z = new double[x.length];
+        for (int j = 0; j < RAY_GRID_SIZE; ++j) {
+            for (int k = 0; k < RAY_GRID_SIZE; ++k) {
+                for (int l = 0; l < RAY_GRID_SIZE; ++l) {
+                    if (j == 0 || j == last || k == 0 || k == last || l == 0 || l == last) {
+                        double d0 = (double) ((float) j / 15.0F * 2.0F - 1.0F);
+                        double d1 = (double) ((float) k / 15.0F * 2.0F - 1.0F);
+                        double d2 = (double) ((float) l / 15.0F * 2.0F - 1.0F);
+                        double d3 = Math.sqrt(d0 * d0 + d1 * d1 + d2 * d2);
+                        x[count] = d0 / d3;
+                        y[count] = d1 / d3;
+                        z[count] = d2 / d3;
+                        count++;
+                    }
+                }
+            }
+        }
+        RAY_X = Arrays.copyOf(x, count);
+        RAY_Y = Arrays.copyOf(y, count);
+        RAY_Z = Arrays.copyOf(z, count);
+    }
+
+    private ExplosionRays() {
+    }
+
+    /**
+     * Adds the positions reached by the rays of the explosion to the given
+     * collection, this includes positions of air blocks like in vanilla.
+     *
+     * @param explosion The explosion
+     * @param world The world of the explosion
+     * @param exploder The exploding entity, if any
+     * @param x The x coordinate of the center
+     * @param y The y coordinate of the center
+     * @param z The z coordinate of the center
+     * @param size The size of the explosion
+     * @param affected The collection to add the positions to
+     */
+    public static void collectAffectedBlocks(Explosion explosion, World world, @Nullable Entity exploder, double x, double y, double z,
+            float size, Collection<BlockPos> affected) {
+        final BlockCache cache = BLOCK_CACHE.get();
+        cache.clear();
+        final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        try {
+            for (int ray = 0; ray < RAY_X.length; ray++) {
+                final double stepX = RAY_X[ray] * STEP_LENGTH;
+                final double stepY = RAY_Y[ray] * STEP_LENGTH;
+                final double stepZ = RAY_Z[ray] * STEP_LENGTH;
+                float f = size * (0.7F + world.rand.nextFloat() * 0.6F);
+                double d4 = x;
+                double d6 = y;
+                double d8 = z;
+
+                for (; f > 0.0F; f -= 0.22500001F) {
+                    pos.setPos(MathHelper.floor(d4), MathHelper.floor(d6), MathHelper.floor(d8));
+                    int index = cache.find(pos.toLong());
+                    if (index < 0) {
+                        index = cache.insert(pos.toLong(), explosion, world, exploder, pos);
+                    }
+                    final IBlockState state = cache.states[index];
+
+                    if (state.getMaterial() != Material.AIR) {
+                        f -= (cache.resistances[index] + 0.3F) * 0.3F;
+                    }
+
+                    if (f > 0.0F && !cache.affected[index]
+                            && (exploder == null || exploder.verifyExplosion(explosion, world, cache.positions[index], state, f))) {
+                        cache.affected[index] = true;
+                        affected.add(cache.positions[index]);
+                    }
+
+                    d4 += stepX;
+                    d6 += stepY;
+                    d8 += stepZ;
+                }
+            }
+        } finally {
+            cache.release();
+        }
+    }
+
+    /**
+     * An open addressing hash table of the blocks reached by the rays of a
+     * single explosion, keyed by their packed position.
+     */
+    private static final class BlockCache {
+
+        private static final int INITIAL_CAPACITY = 4096;
+        // Tables that grew larger than this for a huge explosion are shrunk again afterwards
+        private static final int MAX_RETAINED_CAPACITY = 65536;
+
+        int mask;
+        int size;
+        long[] keys;
+        boolean[] used;
+        BlockPos[] positions;
+        IBlockState[] states;
+        float[] resistances;
+        boolean[] affected;
+
+        BlockCache() {
+            allocate(INITIAL_CAPACITY);
+        }
+
+        private void allocate(int capacity) {
+            this.mask = capacity - 1;
+            this.size = 0;
+            this.keys = new long[capacity];
+            this.used = new boolean[capacity];
+            this.positions = new BlockPos[capacity];
+            this.states = new IBlockState[capacity];
+            this.resistances = new float[capacity];
+            this.affected = new boolean[capacity];
+        }
+
+        void clear() {
+            if (this.size > 0) {
+                Arrays.fill(this.used, false);
+                this.size = 0;
+            }
+        }
+
+        void release() {
+            if (this.keys.length > MAX_RETAINED_CAPACITY) {
+                allocate(INITIAL_CAPACITY);
+            } else {
+                clear();
+                // Don't keep the states and positions alive
+                Arrays.fill(this.positions, null);
+                Arrays.fill(this.states, null);
+            }
+        }
+
+        private static int hash(long key) {
+            final long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        int find(long key) {
+            int index = hash(key) & this.mask;
+            while (this.used[index]) {
+                if (this.keys[index] == key) {
+                    return index;
+                }
+                index = (index + 1) & this.mask;
+            }
+            return -1;
+        }
+
+        int insert(long key, Explosion explosion, World world, @Nullable Entity exploder, BlockPos.MutableBlockPos pos) {
+            if ((this.size + 1) * 2 > this.keys.length) {
+                grow();
+            }
+            int index = hash(key) & this.mask;
+            while (this.used[index]) {
+                index = (index + 1) & this.mask;
+            }
+            final BlockPos immutablePos = pos.toImmutable();
+            final IBlockState state = world.getBlockState(immutablePos);
+            this.used[index] = true;
+            this.keys[index] = key;
+            this.positions[index] = immutablePos;
+            this.states[index] = state;
+            this.affected[index] = false;
+            if (state.getMaterial() != Material.AIR) {
+                this.resistances[index] = exploder != null
+                        ? exploder.getExplosionResistance(explosion, world, immutablePos, state)
+                        : state.getBlock().getExplosionResistance((Entity) null);
+            }
+            this.size++;
+            return index;
+        }
+
+        private void grow() {
+            final long[] keys = this.keys;
+            final boolean[] used = this.used;
+            final BlockPos[] positions = this.positions;
+            final IBlockState[] states = this.states;
+            final float[] resistances = this.resistances;
+            final boolean[] affected = this.affected;
+            allocate(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (used[i]) {
+                    int index = hash(keys[i]) & this.mask;
+                    while (this.used[index]) {
+                        index = (index + 1) & this.mask;
+                    }
+                    this.used[index] = true;
+                    this.keys[index] = keys[i];
+                    this.positions[index] = positions[i];
+                    this.states[index] = states[i];
+                    this.resistances[index] = resistances[i];
+                    this.affected[index] = affected[i];
+                    this.size++;
+                }
+            }
+        }
+    }
+}
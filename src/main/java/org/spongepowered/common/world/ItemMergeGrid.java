@@ -0,0 +1,195 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.common.interfaces.entity.item.IMixinEntityItem;
+import org.spongepowered.common.interfaces.world.IMixinWorldServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Merges the item entities of a world in a single pass, instead of every
+ * item searching the chunks around it for other items. The items that would
+ * have searched during their update are queued, and once the entities are
+ * updated each queued item only has to check the items in the columns
+ * around it, the columns being as wide as the merge radius.
+ *
+ * <p>The item entities of the world are kept in their columns as they are
+ * added to and removed from the world and after each of their updates. An
+ * item moved by something else after its update is found in its previous
+ * column until its next update.</p>
+ */
+public final class ItemMergeGrid {
+
+    /**
+     * The width of an item entity, the columns are widened by it so that
+     * the neighbouring columns cover the whole search area of an item.
+     */
+    private static final double ITEM_WIDTH = 0.25D;
+
+    private final WorldServer world;
+    private final Set<EntityItem> queued = Sets.newLinkedHashSet();
+    private final Long2ObjectMap<Set<EntityItem>> columns = new Long2ObjectOpenHashMap<>();
+    private final Object2LongMap<EntityItem> itemColumns = new Object2LongOpenHashMap<>();
+    private double radius;
+    private double columnWidth;
+
+    public ItemMergeGrid(WorldServer world) {
+        this.world = world;
+    }
+
+    public void add(EntityItem item) {
+        if (!this.itemColumns.containsKey(item)) {
+            addToColumn(item, columnOf(item));
+        }
+    }
+
+    public void remove(EntityItem item) {
+        if (this.itemColumns.containsKey(item)) {
+            removeFromColumn(item, this.itemColumns.removeLong(item));
+        }
+        this.queued.remove(item);
+    }
+
+    /**
+     * Moves the item to the column of its current position, if it is
+     * tracked.
+     *
+     * @param item The item
+     */
+    public void move(EntityItem item) {
+        if (!this.itemColumns.containsKey(item)) {
+            return;
+        }
+        final long column = columnOf(item);
+        final long previous = this.itemColumns.getLong(item);
+        if (column != previous) {
+            removeFromColumn(item, previous);
+            addToColumn(item, column);
+        }
+    }
+
+    public void queue(EntityItem item) {
+        this.queued.add(item);
+    }
+
+    public boolean isEmpty() {
+        return this.queued.isEmpty();
+    }
+
+    public void mergeQueued() {
+        if (this.queued.isEmpty()) {
+            return;
+        }
+        if (updateRadius()) {
+            // The merge radius was changed, the columns have a different width now
+            final List<EntityItem> items = new ArrayList<>(this.itemColumns.keySet());
+            this.columns.clear();
+            this.itemColumns.clear();
+            for (EntityItem item : items) {
+                addToColumn(item, columnOf(item));
+            }
+        }
+        try {
+            for (EntityItem item : this.queued) {
+                if (item.isEntityAlive()) {
+                    mergeNearby(item);
+                }
+            }
+        } finally {
+            this.queued.clear();
+        }
+    }
+
+    private boolean updateRadius() {
+        final double configRadius = ((IMixinWorldServer) this.world).getActiveConfig().getConfig().getWorld().getItemMergeRadius();
+        final double radius = configRadius < 0 ? 0 : configRadius;
+        if (radius == this.radius && this.columnWidth != 0) {
+            return false;
+        }
+        this.radius = radius;
+        this.columnWidth = radius + ITEM_WIDTH;
+        return true;
+    }
+
+    private void mergeNearby(EntityItem item) {
+        final AxisAlignedBB searchBox = item.getEntityBoundingBox().expand(this.radius, 0.0D, this.radius);
+        final int columnX = MathHelper.floor(item.posX / this.columnWidth);
+        final int columnZ = MathHelper.floor(item.posZ / this.columnWidth);
+        for (int x = columnX - 1; x <= columnX + 1; x++) {
+            for (int z = columnZ - 1; z <= columnZ + 1; z++) {
+                final Set<EntityItem> column = this.columns.get(key(x, z));
+                if (column == null) {
+                    continue;
+                }
+                // Copied, merging may remove items from the world
+                for (EntityItem other : new ArrayList<>(column)) {
+                    if (other != item && other.isEntityAlive() && other.getEntityBoundingBox().intersectsWith(searchBox)) {
+                        ((IMixinEntityItem) item).combineWith(other);
+                        if (!item.isEntityAlive()) {
+                            // Merged into the other item
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void addToColumn(EntityItem item, long column) {
+        this.itemColumns.put(item, column);
+        this.columns.computeIfAbsent(column, key -> Sets.newLinkedHashSet()).add(item);
+    }
+
+    private void removeFromColumn(EntityItem item, long column) {
+        final Set<EntityItem> items = this.columns.get(column);
+        if (items != null && items.remove(item) && items.isEmpty()) {
+            this.columns.remove(column);
+        }
+    }
+
+    private long columnOf(EntityItem item) {
+        if (this.columnWidth == 0) {
+            // The config isn't available yet when the world is constructed
+            updateRadius();
+        }
+        return key(MathHelper.floor(item.posX / this.columnWidth), MathHelper.floor(item.posZ / this.columnWidth));
+    }
+
+    private static long key(int x, int z) {
+        return (long) x & 0xFFFFFFFFL | ((long) z & 0xFFFFFFFFL) << 32;
+    }
+}
@@ -27,6 +27,7 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import org.spongepowered.api.Sponge;
@@ -47,28 +48,41 @@
 import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.Nullable;
 
 public final class SpongePlayerDataHandler {
 
     private static final String SPONGE_DATA = "sponge";
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("Sponge Player Data Saver")
+            .setDaemon(true)
+            .build());
     private boolean hasInitialized = false;
     private Path playerDir;
 
     private Map<UUID, SpongePlayerData> playerDataMap;
+    // Replaces the player data map if the player data index is enabled
+    @Nullable private volatile SpongePlayerDataIndex index;
 
     public static void init() {
         final SpongePlayerDataHandler handlerInstance = Holder.INSTANCE;
         if (!Sponge.isServerAvailable()) {
             return;
         }
+        // Don't read files the previous server is still writing
+        awaitPendingWrites();
         handlerInstance.playerDataMap = new ConcurrentHashMap<>();
+        handlerInstance.index = null;
         final Path filePath = WorldManager.getCurrentSavesDirectory().get().resolve("data").resolve
                 (SPONGE_DATA);
 
@@ -76,34 +90,14 @@ public static void init() {
             handlerInstance.playerDir = filePath;
             Files.createDirectories(handlerInstance.playerDir);
 
-            final List<Path> playerFiles = new ArrayList<>();
-            try (DirectoryStream<Path> stream = Files.newDirectoryStream(filePath, "*.{dat}")) {
-                for (Path entry : stream) {
-                    playerFiles.add(entry);
-                }
-            } catch (DirectoryIteratorException e) {
-                SpongeImpl.getLogger().error("Something happened when trying to gather all player files", e);
-            }
-            for (Path playerFile : playerFiles) {
-                if (Files.isReadable(playerFile)) {
-                    NBTTagCompound compound;
-
-                    try (final InputStream stream = Files.newInputStream(playerFile)) {
-                        compound = CompressedStreamTools.readCompressed(stream);
-                    }
-
-                    // TODO Hard exception? Logger entry?
-                    if (compound == null) {
-                        throw new RuntimeException("Failed to decompress player data within [" + playerFile + "]!");
-                    }
-
-                    DataContainer container = NbtTranslator.getInstance().translateFrom(compound);
-                    SpongePlayerData data = container.getSerializable(DataQuery.of(), SpongePlayerData.class).get();
-                    handlerInstance.playerDataMap.put(data.uuid, data);
-                }
+            final Path indexFile = filePath.resolve(SpongePlayerDataIndex.FILE_NAME);
+            if (SpongeImpl.getGlobalConfig().getConfig().getOptimizations().usePlayerDataIndex()) {
+                handlerInstance.index = loadIndex(indexFile);
+            } else {
+                // Player files saved from now on won't be in the index, it has to be created again
+                SpongePlayerDataIndex.delete(indexFile);
+                loadPlayerFiles(filePath, handlerInstance.playerDataMap);
             }
-            playerFiles.clear();
-
         } catch (FileAlreadyExistsException e) {
             SpongeImpl.getLogger().error("Someone went and created a file for the desired path: {}", filePath);
         } catch (Exception e) {
@@ -113,11 +107,98 @@ public static void init() {
         handlerInstance.hasInitialized = true;
     }
 
+    private static SpongePlayerDataIndex loadIndex(Path indexFile) throws IOException {
+        if (Files.exists(indexFile)) {
+            try {
+                return SpongePlayerDataIndex.read(indexFile, executor);
+            } catch (IOException e) {
+                SpongeImpl.getLogger().error("Failed to read the player data index [{}], it will be created again.", indexFile, e);
+            }
+        }
+        SpongeImpl.getLogger().info("Creating the player data index from the player data files...");
+        final Map<UUID, SpongePlayerData> playerData = new HashMap<>();
+        loadPlayerFiles(indexFile.getParent(), playerData);
+        SpongePlayerDataIndex.create(indexFile, playerData.values());
+        return SpongePlayerDataIndex.read(indexFile, executor);
+    }
+
+    private static void loadPlayerFiles(Path dir, Map<UUID, SpongePlayerData> playerDataMap) throws IOException {
+        final List<Path> playerFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.{dat}")) {
+            for (Path entry : stream) {
+                playerFiles.add(entry);
+            }
+        } catch (DirectoryIteratorException e) {
+            SpongeImpl.getLogger().error("Something happened when trying to gather all player files", e);
+        }
+        for (Path playerFile : playerFiles) {
+            if (Files.isReadable(playerFile)) {
+                final SpongePlayerData data = loadPlayerFile(playerFile);
+                playerDataMap.put(data.uuid, data);
+            }
+        }
+        playerFiles.clear();
+    }
+
+    private static SpongePlayerData loadPlayerFile(Path playerFile) throws IOException {
+        NBTTagCompound compound;
+
+        try (final InputStream stream = Files.newInputStream(playerFile)) {
+            compound = CompressedStreamTools.readCompressed(stream);
+        }
+
+        // TODO Hard exception? Logger entry?
+        if (compound == null) {
+            throw new RuntimeException("Failed to decompress player data within [" + playerFile + "]!");
+        }
+
+        DataContainer container = NbtTranslator.getInstance().translateFrom(compound);
+        return container.getSerializable(DataQuery.of(), SpongePlayerData.class).get();
+    }
+
+    /**
+     * Waits until all player data queued to be saved is written.
+     */
+    public static void awaitPendingWrites() {
+        CompletableFuture.runAsync(() -> {}, executor).join();
+    }
+
+    @Nullable
+    private static SpongePlayerData getPlayerData(UUID id) {
+        final SpongePlayerDataHandler instance = Holder.INSTANCE;
+        final SpongePlayerDataIndex index = instance.index;
+        if (index == null) {
+            return instance.playerDataMap.get(id);
+        }
+        @Nullable SpongePlayerData data = index.get(id);
+        if (data == null && !index.isMissing(id)) {
+            // The player file may have been saved without updating the index, e.g. by an older version
+            final Path playerFile = instance.playerDir.resolve(id + ".dat");
+            if (Files.isReadable(playerFile)) {
+                try {
+                    data = loadPlayerFile(playerFile);
+                    index.put(data);
+                } catch (Exception e) {
+                    SpongeImpl.getLogger().error("Failed to load player data [{}]!", playerFile, e);
+                }
+            } else {
+                index.markMissing(id);
+            }
+        }
+        return data;
+    }
+
     public static void savePlayer(UUID id) {
         checkState(Holder.INSTANCE.hasInitialized, "PlayerDataHandler hasn't initialized yet!");
         SpongePlayerDataHandler instance = Holder.INSTANCE;
-        @Nullable SpongePlayerData data = instance.playerDataMap.get(checkNotNull(id, "Player id cannot be null!"));
-        if (data != null) {
+        @Nullable SpongePlayerData data = getPlayerData(checkNotNull(id, "Player id cannot be null!"));
+        final SpongePlayerDataIndex index = instance.index;
+        if (data != null && index != null) {
+            // The player file is still written, so the index can be disabled again
+            final NBTTagCompound compound = createCompoundFor(data);
+            executor.execute(() -> saveFile(id.toString(), compound));
+            index.queueWrite();
+        } else if (data != null) {
             saveFile(id.toString(), createCompoundFor(data));
         } else {
             SpongeImpl.getLogger().error("Couldn't find a player data for the uuid: " + id.toString());
@@ -174,7 +255,18 @@ public static void setPlayerInfo(UUID playerId, Instant join, Instant last) {
         checkNotNull(last, "Last joined date cannot be null!");
         SpongePlayerDataHandler instance = Holder.INSTANCE;
 
-        SpongePlayerData data = instance.playerDataMap.get(checkNotNull(playerId, "Player UUID cannot be null!"));
+        checkNotNull(playerId, "Player UUID cannot be null!");
+        final SpongePlayerDataIndex index = instance.index;
+        if (index != null) {
+            // Entries are read from other threads, never modify them
+            final SpongePlayerData data = new SpongePlayerData();
+            data.uuid = playerId;
+            data.firstJoined = join.toEpochMilli();
+            data.lastJoined = last.toEpochMilli();
+            index.put(data);
+            return;
+        }
+        SpongePlayerData data = instance.playerDataMap.get(playerId);
         if (data == null) {
             data = new SpongePlayerData();
             data.uuid = playerId;
@@ -186,13 +278,13 @@ public static void setPlayerInfo(UUID playerId, Instant join, Instant last) {
 
     public static Optional<Instant> getFirstJoined(UUID player) {
         checkState(Holder.INSTANCE.hasInitialized, "PlayerDataHandler hasn't initialized yet!");
-        final SpongePlayerData data = Holder.INSTANCE.playerDataMap.get(player);
+        final SpongePlayerData data = getPlayerData(player);
         return Optional.ofNullable(data == null ? null : Instant.ofEpochMilli(data.firstJoined));
     }
 
     public static Optional<Instant> getLastPlayed(UUID player) {
         checkState(Holder.INSTANCE.hasInitialized, "PlayerDataHandler hasn't initialized yet!");
-        final SpongePlayerData data = Holder.INSTANCE.playerDataMap.get(player);
+        final SpongePlayerData data = getPlayerData(player);
         return Optional.ofNullable(data == null ? null : Instant.ofEpochMilli(data.lastJoined));
     }
 
@@ -0,0 +1,427 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import com.google.common.cache.CacheBuilder;
+import org.spongepowered.common.SpongeImpl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nullable;
+
+/**
+ * A compact index of the {@link SpongePlayerData} of all players that ever
+ * joined. The index file is a small header followed by one fixed size entry
+ * per player (uuid, first joined and last joined) sorted by uuid, so it can
+ * be read in a single pass and searched without creating an object per
+ * player.
+ *
+ * <p>Changed entries are kept in memory and appended to a log file next to
+ * the index in the background. Once enough changes were logged they are
+ * merged into a new index file and the log is started over. Both files carry
+ * a generation, a log is only replayed onto the index file it was started
+ * for.</p>
+ *
+ * <p>A limited number of lookups of players without any data are remembered
+ * as well, until data is put for them, so repeated misses don't touch the
+ * disk again.</p>
+ */
+final class SpongePlayerDataIndex {
+
+    static final String FILE_NAME = "players.index";
+
+    private static final int MAGIC = 0x53504458; // SPDX
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int LOG_HEADER_SIZE = 12;
+    private static final int ENTRY_LONGS = 4;
+    private static final int ENTRY_SIZE = ENTRY_LONGS * Long.BYTES;
+    // The changes are merged into the index file once there are this many, or an eighth of the entries
+    private static final int MIN_COMPACT_CHANGES = 1024;
+    private static final int MAX_MISSING = 4096;
+    private static final Comparator<SpongePlayerData> UUID_ORDER = (o1, o2) -> o1.uuid.compareTo(o2.uuid);
+
+    private final Path file;
+    private final Path logFile;
+    private final Executor executor;
+    // The sorted entries of the index file, replaced once changes are merged into a new file
+    private volatile Entries entries;
+    // The changes that are not in the index file yet
+    private final Map<UUID, SpongePlayerData> changed = new ConcurrentHashMap<>();
+    // The changes that are not in the log file yet
+    private final Map<UUID, SpongePlayerData> unlogged = new ConcurrentHashMap<>();
+    private final Set<UUID> missing = Collections.newSetFromMap(CacheBuilder.newBuilder()
+            .maximumSize(MAX_MISSING)
+            .<UUID, Boolean>build()
+            .asMap());
+    private final AtomicBoolean writeQueued = new AtomicBoolean();
+
+    private SpongePlayerDataIndex(Path file, Executor executor, Entries entries) {
+        this.file = file;
+        this.logFile = getLog(file);
+        this.executor = executor;
+        this.entries = entries;
+    }
+
+    /**
+     * Reads the index file and replays its log. A replayed log is merged into
+     * the index file right away.
+     *
+     * @param file The index file
+     * @param executor The executor to write the index with
+     * @return The index
+     * @throws IOException If the file couldn't be read or isn't a valid index
+     */
+    static SpongePlayerDataIndex read(Path file, Executor executor) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a player data index: " + file);
+        }
+        final int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported player data index version " + version + ": " + file);
+        }
+        final int size = buffer.getInt();
+        final int generation = buffer.getInt();
+        if (size < 0 || buffer.remaining() != (long) size * ENTRY_SIZE) {
+            throw new IOException("Truncated player data index: " + file);
+        }
+        final SpongePlayerDataIndex index = new SpongePlayerDataIndex(file, executor, new Entries(buffer.asLongBuffer(), generation));
+        if (index.readLog()) {
+            index.compact();
+        }
+        return index;
+    }
+
+    /**
+     * Writes a new index file containing the given entries.
+     *
+     * @param file The index file
+     * @param data The entries
+     * @throws IOException If the file couldn't be written
+     */
+    static void create(Path file, Collection<SpongePlayerData> data) throws IOException {
+        final List<SpongePlayerData> sorted = new ArrayList<>(data);
+        sorted.sort(UUID_ORDER);
+        try (DataOutputStream out = openTemp(file)) {
+            writeHeader(out, sorted.size(), 0);
+            for (SpongePlayerData entry : sorted) {
+                writeEntry(out, entry);
+            }
+        }
+        moveTemp(file);
+        Files.deleteIfExists(getLog(file));
+    }
+
+    /**
+     * Deletes the index file and its log.
+     *
+     * @param file The index file
+     * @throws IOException If a file couldn't be deleted
+     */
+    static void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(getLog(file));
+    }
+
+    @Nullable
+    SpongePlayerData get(UUID uuid) {
+        final SpongePlayerData data = this.changed.get(uuid);
+        if (data != null) {
+            return data;
+        }
+        final Entries entries = this.entries;
+        final int index = entries.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (index < 0) {
+            return null;
+        }
+        final int offset = index * ENTRY_LONGS;
+        final SpongePlayerData entry = new SpongePlayerData();
+        entry.uuid = uuid;
+        entry.firstJoined = entries.buffer.get(offset + 2);
+        entry.lastJoined = entries.buffer.get(offset + 3);
+        return entry;
+    }
+
+    void put(SpongePlayerData data) {
+        this.changed.put(data.uuid, data);
+        this.unlogged.put(data.uuid, data);
+        this.missing.remove(data.uuid);
+    }
+
+    /**
+     * Gets whether the player was marked as having no data, neither in the
+     * index nor as a player file.
+     *
+     * @param uuid The player uuid
+     * @return Whether the player has no data
+     */
+    boolean isMissing(UUID uuid) {
+        return this.missing.contains(uuid);
+    }
+
+    /**
+     * Marks the player as having no data, until data is put for it. Only a
+     * limited number of players are remembered.
+     *
+     * @param uuid The player uuid
+     */
+    void markMissing(UUID uuid) {
+        this.missing.add(uuid);
+    }
+
+    /**
+     * Queues a write of the changes, changes made until the write starts are
+     * written together.
+     */
+    void queueWrite() {
+        if (this.writeQueued.compareAndSet(false, true)) {
+            this.executor.execute(() -> {
+                // Changes from here on need another write
+                this.writeQueued.set(false);
+                try {
+                    write();
+                } catch (IOException e) {
+                    SpongeImpl.getLogger().error("Failed to save the player data index [{}]!", this.file, e);
+                }
+            });
+        }
+    }
+
+    private void write() throws IOException {
+        if (this.changed.size() >= Math.max(MIN_COMPACT_CHANGES, this.entries.size / 8)) {
+            compact();
+            return;
+        }
+        try {
+            appendLog();
+        } catch (IOException e) {
+            // The log may end with a partial entry now, start over with a new index file instead
+            SpongeImpl.getLogger().warn("Failed to append to the player data index log [{}], rewriting the index.", this.logFile, e);
+            compact();
+        }
+    }
+
+    /**
+     * Reads the log of the index file into the changes.
+     *
+     * @return Whether a log was read
+     * @throws IOException If the log couldn't be read
+     */
+    private boolean readLog() throws IOException {
+        if (Files.notExists(this.logFile)) {
+            return false;
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(this.logFile));
+        if (buffer.remaining() < LOG_HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getInt() != this.entries.generation) {
+            // Left over from before the changes were merged into the index file
+            Files.delete(this.logFile);
+            return false;
+        }
+        // A partial entry at the end was never completely written, the changes are merged right away
+        while (buffer.remaining() >= ENTRY_SIZE) {
+            final SpongePlayerData data = new SpongePlayerData();
+            data.uuid = new UUID(buffer.getLong(), buffer.getLong());
+            data.firstJoined = buffer.getLong();
+            data.lastJoined = buffer.getLong();
+            this.changed.put(data.uuid, data);
+        }
+        return true;
+    }
+
+    private void appendLog() throws IOException {
+        final List<SpongePlayerData> unlogged = new ArrayList<>(this.unlogged.values());
+        if (unlogged.isEmpty()) {
+            return;
+        }
+        final boolean created = Files.notExists(this.logFile);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.logFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)))) {
+            if (created) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(this.entries.generation);
+            }
+            for (SpongePlayerData data : unlogged) {
+                writeEntry(out, data);
+            }
+        }
+        for (SpongePlayerData data : unlogged) {
+            this.unlogged.remove(data.uuid, data);
+        }
+    }
+
+    /**
+     * Merges the changes into a new index file and starts a new log.
+     *
+     * @throws IOException If the index file couldn't be written
+     */
+    private void compact() throws IOException {
+        final Entries entries = this.entries;
+        final List<SpongePlayerData> changed = new ArrayList<>(this.changed.values());
+        changed.sort(UUID_ORDER);
+        int size = entries.size;
+        for (SpongePlayerData data : changed) {
+            if (entries.find(data.uuid.getMostSignificantBits(), data.uuid.getLeastSignificantBits()) < 0) {
+                size++;
+            }
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(size * ENTRY_SIZE);
+        final LongBuffer merged = buffer.asLongBuffer();
+        // Merge the sorted changes into the sorted entries
+        int index = 0;
+        for (SpongePlayerData data : changed) {
+            final long most = data.uuid.getMostSignificantBits();
+            final long least = data.uuid.getLeastSignificantBits();
+            while (index < entries.size && entries.compare(index, most, least) < 0) {
+                entries.copy(index++, merged);
+            }
+            if (index < entries.size && entries.compare(index, most, least) == 0) {
+                index++;
+            }
+            merged.put(most).put(least).put(data.firstJoined).put(data.lastJoined);
+        }
+        while (index < entries.size) {
+            entries.copy(index++, merged);
+        }
+        merged.flip();
+
+        final int generation = entries.generation + 1;
+        try (DataOutputStream out = openTemp(this.file)) {
+            writeHeader(out, size, generation);
+            out.write(buffer.array());
+        }
+        moveTemp(this.file);
+        // The log belongs to the previous generation now, it is ignored even if it can't be deleted
+        Files.deleteIfExists(this.logFile);
+
+        this.entries = new Entries(merged, generation);
+        // Keep the changes that were changed again in the meantime
+        for (SpongePlayerData data : changed) {
+            this.changed.remove(data.uuid, data);
+            this.unlogged.remove(data.uuid, data);
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, SpongePlayerData data) throws IOException {
+        out.writeLong(data.uuid.getMostSignificantBits());
+        out.writeLong(data.uuid.getLeastSignificantBits());
+        out.writeLong(data.firstJoined);
+        out.writeLong(data.lastJoined);
+    }
+
+    private static void writeHeader(DataOutputStream out, int size, int generation) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(size);
+        out.writeInt(generation);
+    }
+
+    private static DataOutputStream openTemp(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(getTemp(file))));
+    }
+
+    private static void moveTemp(Path file) throws IOException {
+        try {
+            Files.move(getTemp(file), file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(getTemp(file), file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Path getTemp(Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    private static Path getLog(Path file) {
+        return file.resolveSibling(file.getFileName() + ".log");
+    }
+
+    private static final class Entries {
+
+        // Never modified
+        final LongBuffer buffer;
+        final int size;
+        final int generation;
+
+        Entries(LongBuffer buffer, int generation) {
+            this.buffer = buffer;
+            this.size = buffer.limit() / ENTRY_LONGS;
+            this.generation = generation;
+        }
+
+        int find(long most, long least) {
+            int low = 0;
+            int high = this.size - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int result = compare(mid, most, least);
+                if (result < 0) {
+                    low = mid + 1;
+                } else if (result > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        // Same order as UUID#compareTo
+        int compare(int index, long most, long least) {
+            final int offset = index * ENTRY_LONGS;
+            final int result = Long.compare(this.buffer.get(offset), most);
+            return result != 0 ? result : Long.compare(this.buffer.get(offset + 1), least);
+        }
+
+        void copy(int index, LongBuffer target) {
+            final int offset = index * ENTRY_LONGS;
+            for (int i = 0; i < ENTRY_LONGS; i++) {
+                target.put(this.buffer.get(offset + i));
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data;
+
+import org.spongepowered.api.data.DataTransactionResult;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.value.ValueContainer;
+import org.spongepowered.api.data.value.mutable.Value;
+import org.spongepowered.common.data.value.mutable.SpongeValue;
+
+import java.util.Optional;
+
+/**
+ * A read only {@link SimpleValueProcessor} of strings for the tests of the
+ * data indexes and accessors.
+ *
+ * @param <C> The type of container
+ */
+public abstract class TestValueProcessor<C> implements SimpleValueProcessor<C, String, Value<String>> {
+
+    private final Class<C> containerClass;
+    private final Key<Value<String>> key;
+
+    protected TestValueProcessor(Class<C> containerClass, Key<Value<String>> key) {
+        this.containerClass = containerClass;
+        this.key = key;
+    }
+
+    @Override
+    public Class<C> getContainerClass() {
+        return this.containerClass;
+    }
+
+    @Override
+    public Key<Value<String>> getKey() {
+        return this.key;
+    }
+
+    @Override
+    public int getPriority() {
+        return 100;
+    }
+
+    @Override
+    public Optional<String> getValueFromContainer(ValueContainer<?> container) {
+        return supports(container) ? getValueDirect(this.containerClass.cast(container)) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Value<String>> getApiValueFromContainer(ValueContainer<?> container) {
+        return getValueFromContainer(container).map(value -> new SpongeValue<>(this.key, "", value));
+    }
+
+    @Override
+    public boolean supports(ValueContainer<?> container) {
+        return this.containerClass.isInstance(container);
+    }
+
+    @Override
+    public DataTransactionResult offerToStore(ValueContainer<?> container, String value) {
+        return DataTransactionResult.failNoData();
+    }
+
+    @Override
+    public DataTransactionResult removeFrom(ValueContainer<?> container) {
+        return DataTransactionResult.failNoData();
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.gen;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.value.mutable.Value;
+import org.spongepowered.common.data.TestValueProcessor;
+import org.spongepowered.common.data.ValueProcessor;
+import org.spongepowered.common.data.util.ValueProcessorDelegate;
+
+import java.util.Optional;
+
+public class KeyAccessorFactoryTest {
+
+    @SuppressWarnings("unchecked")
+    static final Key<Value<String>> KEY = Mockito.mock(Key.class);
+
+    @Test
+    public void testDirectAccessor() {
+        final KeyAccessorFactory factory = factoryOf(new NameProcessor(), new LabelProcessor());
+        final KeyAccessor<String> accessor = factory.getAccessor(NamedHolder.class, KEY);
+        Assert.assertNotNull(accessor);
+        Assert.assertEquals(Optional.of("foo"), accessor.get(new NamedHolder("foo")));
+        Assert.assertSame(accessor, factory.getAccessor(NamedHolder.class, KEY));
+    }
+
+    @Test
+    public void testUnsupportedHolderIsEmpty() {
+        final KeyAccessorFactory factory = factoryOf(new NameProcessor());
+        final KeyAccessor<String> accessor = factory.getAccessor(Object.class, KEY);
+        Assert.assertNotNull(accessor);
+        Assert.assertEquals(Optional.empty(), accessor.get(new Object()));
+    }
+
+    @Test
+    public void testAmbiguousProcessorsFallBack() {
+        final KeyAccessorFactory factory = factoryOf(new NameProcessor(), new ObjectProcessor());
+        Assert.assertNull(factory.getAccessor(NamedHolder.class, KEY));
+    }
+
+    @Test
+    public void testNonSimpleProcessorFallsBack() {
+        @SuppressWarnings("unchecked")
+        final ValueProcessor<String, Value<String>> processor = Mockito.mock(ValueProcessor.class);
+        final KeyAccessorFactory factory = factoryOf(new NameProcessor(), processor);
+        Assert.assertNull(factory.getAccessor(NamedHolder.class, KEY));
+    }
+
+    @Test
+    public void testUnknownKeyFallsBack() {
+        @SuppressWarnings("unchecked")
+        final Key<Value<String>> other = Mockito.mock(Key.class);
+        Assert.assertNull(factoryOf(new NameProcessor()).getAccessor(NamedHolder.class, other));
+    }
+
+    @SafeVarargs
+    private final KeyAccessorFactory factoryOf(ValueProcessor<String, Value<String>>... processors) {
+        return new KeyAccessorFactory(ImmutableMap.of(KEY, new ValueProcessorDelegate<>(KEY, ImmutableList.copyOf(processors))));
+    }
+
+    public static final class NamedHolder {
+
+        final String name;
+
+        NamedHolder(String name) {
+            this.name = name;
+        }
+    }
+
+    public static final class LabelledHolder {
+
+    }
+
+    public static final class NameProcessor extends TestValueProcessor<NamedHolder> {
+
+        public NameProcessor() {
+            super(NamedHolder.class, KEY);
+        }
+
+        @Override
+        public Optional<String> getValueDirect(NamedHolder container) {
+            return Optional.of(container.name);
+        }
+    }
+
+    public static final class LabelProcessor extends TestValueProcessor<LabelledHolder> {
+
+        public LabelProcessor() {
+            super(LabelledHolder.class, KEY);
+        }
+
+        @Override
+        public Optional<String> getValueDirect(LabelledHolder container) {
+            return Optional.of("label");
+        }
+    }
+
+    public static final class ObjectProcessor extends TestValueProcessor<Object> {
+
+        public ObjectProcessor() {
+            super(Object.class, KEY);
+        }
+
+        @Override
+        public Optional<String> getValueDirect(Object container) {
+            return Optional.empty();
+        }
+    }
+
+}
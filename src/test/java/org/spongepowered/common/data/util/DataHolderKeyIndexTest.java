@@ -0,0 +1,138 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.data.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.data.DataHolder;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.manipulator.DataManipulator;
+import org.spongepowered.api.data.value.ValueContainer;
+import org.spongepowered.api.data.value.immutable.ImmutableValue;
+import org.spongepowered.api.data.value.mutable.Value;
+import org.spongepowered.common.data.DataProcessor;
+import org.spongepowered.common.data.TestValueProcessor;
+
+import java.util.Optional;
+
+public class DataHolderKeyIndexTest {
+
+    @SuppressWarnings("unchecked")
+    static final Key<Value<String>> KEY = Mockito.mock(Key.class);
+    @SuppressWarnings("unchecked")
+    private final Key<Value<String>> processorOnlyKey = Mockito.mock(Key.class);
+    private final DataHolder named = Mockito.mock(DataHolder.class);
+    private final DataHolder unnamed = Mockito.mock(DataHolder.class);
+
+    @Test
+    public void testKeyWithValueIsListed() {
+        final DataHolderKeyIndex index = indexOf(new NameProcessor(this.named));
+        Assert.assertEquals(ImmutableSet.of(KEY), index.getKeys(this.named));
+        final ImmutableValue<?> value = Iterables.getOnlyElement(index.getValues(this.named));
+        Assert.assertSame(KEY, value.getKey());
+        Assert.assertEquals("foo", value.get());
+    }
+
+    @Test
+    public void testSupportedKeyWithoutValueIsNotListed() {
+        final DataHolderKeyIndex index = indexOf(new NameProcessor(this.named));
+        Assert.assertTrue(index.getKeys(this.unnamed).isEmpty());
+        Assert.assertTrue(index.getValues(this.unnamed).isEmpty());
+    }
+
+    @Test
+    public void testPresenceIsCheckedOnEveryQuery() {
+        final NameProcessor processor = new NameProcessor(this.named);
+        final DataHolderKeyIndex index = indexOf(processor);
+        Assert.assertTrue(index.getKeys(this.unnamed).isEmpty());
+        processor.holder = this.unnamed;
+        Assert.assertEquals(ImmutableSet.of(KEY), index.getKeys(this.unnamed));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testDataProcessorOnlyKeyIsListed() {
+        final ImmutableValue<String> value = Mockito.mock(ImmutableValue.class);
+        Mockito.doReturn(this.processorOnlyKey).when(value).getKey();
+        final ImmutableValue<String> nameValue = Mockito.mock(ImmutableValue.class);
+        Mockito.doReturn(KEY).when(nameValue).getKey();
+        final DataManipulator<?, ?> manipulator = Mockito.mock(DataManipulator.class);
+        Mockito.doReturn(ImmutableSet.of(KEY, this.processorOnlyKey)).when(manipulator).getKeys();
+        Mockito.doReturn(ImmutableSet.of(nameValue, value)).when(manipulator).getValues();
+        final DataProcessor processor = Mockito.mock(DataProcessor.class);
+        Mockito.doReturn(true).when(processor).supports(Mockito.any(DataHolder.class));
+        Mockito.doReturn(Optional.of(manipulator)).when(processor).from(this.named);
+        Mockito.doReturn(Optional.empty()).when(processor).from(this.unnamed);
+
+        final DataHolderKeyIndex index = indexOf(new NameProcessor(this.named), processor);
+        Assert.assertEquals(ImmutableSet.of(KEY, this.processorOnlyKey), index.getKeys(this.named));
+        final ImmutableSet<ImmutableValue<?>> values = ImmutableSet.copyOf(index.getValues(this.named));
+        Assert.assertEquals(2, values.size());
+        Assert.assertTrue(values.contains(value));
+        Assert.assertFalse(values.contains(nameValue));
+        Assert.assertTrue(index.getKeys(this.unnamed).isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCoveredManipulatorIsNotBuiltAgain() {
+        final DataManipulator<?, ?> manipulator = Mockito.mock(DataManipulator.class);
+        Mockito.doReturn(ImmutableSet.of(KEY)).when(manipulator).getKeys();
+        final DataProcessor processor = Mockito.mock(DataProcessor.class);
+        Mockito.doReturn(true).when(processor).supports(Mockito.any(DataHolder.class));
+        Mockito.doReturn(Optional.of(manipulator)).when(processor).from(this.named);
+
+        final DataHolderKeyIndex index = indexOf(new NameProcessor(this.named), processor);
+        Assert.assertEquals(ImmutableSet.of(KEY), index.getKeys(this.named));
+        Assert.assertEquals(ImmutableSet.of(KEY), index.getKeys(this.named));
+        Mockito.verify(processor, Mockito.times(1)).from(this.named);
+    }
+
+    private static DataHolderKeyIndex indexOf(NameProcessor processor, DataProcessor<?, ?>... dataProcessors) {
+        return new DataHolderKeyIndex(ImmutableList.of(new ValueProcessorDelegate<>(KEY, ImmutableList.of(processor))),
+                ImmutableList.copyOf(dataProcessors));
+    }
+
+    @SuppressWarnings("rawtypes")
+    public static final class NameProcessor extends TestValueProcessor<ValueContainer> {
+
+        ValueContainer<?> holder;
+
+        NameProcessor(ValueContainer<?> holder) {
+            super(ValueContainer.class, KEY);
+            this.holder = holder;
+        }
+
+        @Override
+        public Optional<String> getValueDirect(ValueContainer container) {
+            return container == this.holder ? Optional.of("foo") : Optional.empty();
+        }
+    }
+
+}
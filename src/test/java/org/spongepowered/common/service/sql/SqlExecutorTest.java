@@ -0,0 +1,107 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class SqlExecutorTest {
+
+    @Test
+    public void testBatchedUpdates() throws Exception {
+        final HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:batch");
+        config.setMaximumPoolSize(2);
+        try (HikariDataSource source = new HikariDataSource(config)) {
+            final SqlExecutor subject = new SqlExecutor("test", source, 2, 50, Runnable::run);
+            subject.submit(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    return statement.executeUpdate("CREATE TABLE entries (id INT PRIMARY KEY, name VARCHAR(16))");
+                }
+            }).join();
+
+            final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(subject.update("INSERT INTO entries VALUES (?, ?)", i, "entry" + i));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+            for (CompletableFuture<Integer> future : futures) {
+                assertEquals(1, (int) future.join());
+            }
+            assertEquals(100, subject.getBatchedUpdates());
+            assertTrue(subject.getExecutedBatches() < 100);
+
+            final int count = subject.submit(connection -> {
+                try (Statement statement = connection.createStatement();
+                     ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM entries")) {
+                    result.next();
+                    return result.getInt(1);
+                }
+            }).join();
+            assertEquals(100, count);
+            subject.shutdown(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testUpdatesKeepTheirOrder() throws Exception {
+        final HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:order");
+        config.setMaximumPoolSize(4);
+        try (HikariDataSource source = new HikariDataSource(config)) {
+            final SqlExecutor subject = new SqlExecutor("test", source, 4, 50, Runnable::run);
+            subject.update("CREATE TABLE entries (id INT PRIMARY KEY, name VARCHAR(16))");
+            final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(subject.update("INSERT INTO entries VALUES (?, ?)", i, "entry" + i));
+                futures.add(subject.update("UPDATE entries SET name = ? WHERE id = ?", "updated" + i, i));
+            }
+            // Not waiting for the updates, the query has to see all of them
+            final int count = subject.submit(connection -> {
+                try (Statement statement = connection.createStatement();
+                     ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM entries WHERE name LIKE 'updated%'")) {
+                    result.next();
+                    return result.getInt(1);
+                }
+            }).join();
+            assertEquals(10, count);
+            for (CompletableFuture<Integer> future : futures) {
+                assertEquals(1, (int) future.join());
+            }
+            subject.shutdown(1, TimeUnit.SECONDS);
+        }
+    }
+}
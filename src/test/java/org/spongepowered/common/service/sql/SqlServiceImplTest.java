@@ -25,11 +25,19 @@
 package org.spongepowered.common.service.sql;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.junit.Test;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 
 public class SqlServiceImplTest {
     @Test
@@ -64,4 +72,73 @@ public void testSqliteConnectionInfo() throws SQLException {
         assertEquals(jdbcUrl, subject.getAuthlessUrl());
         assertEquals("org.sqlite.JDBC", subject.getDriverClassName());
     }
+
+    @Test
+    public void testPluginConnectionQuota() throws SQLException {
+        final String jdbcUrl = "jdbc:h2:mem:quota";
+        final HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setMaximumPoolSize(2);
+        final SqlServiceImpl.PoolKey key = new SqlServiceImpl.PoolKey(SqlServiceImpl.ConnectionInfo.fromUrl(null, jdbcUrl));
+        final SqlPool pool = new SqlPool(key, jdbcUrl, new HikariDataSource(config));
+        final PluginDataSource subject = new PluginDataSource("test", size -> {
+            assertTrue(pool.retain());
+            return pool;
+        }, 2, 1, 100);
+
+        try (Connection connection = subject.getConnection()) {
+            assertEquals(1, pool.getActiveConnections());
+            assertEquals(1, subject.getLeasedConnections());
+            try {
+                subject.getConnection().close();
+                fail("The connection quota should have been reached");
+            } catch (SQLTimeoutException expected) {
+            }
+        }
+
+        assertEquals(0, subject.getLeasedConnections());
+        assertEquals(1, pool.getAcquisitions());
+        assertTrue(pool.closeIfIdle(0));
+    }
+
+    @Test
+    public void testPluginDataSourceUnwrap() throws SQLException {
+        final String jdbcUrl = "jdbc:h2:mem:unwrap";
+        final HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setMaximumPoolSize(2);
+        final SqlServiceImpl.PoolKey key = new SqlServiceImpl.PoolKey(SqlServiceImpl.ConnectionInfo.fromUrl(null, jdbcUrl));
+        final SqlPool pool = new SqlPool(key, jdbcUrl, new HikariDataSource(config));
+        final PluginDataSource subject = new PluginDataSource("test", size -> {
+            assertTrue(pool.retain());
+            return pool;
+        }, 2, 1, 100);
+
+        try (Connection connection = subject.getConnection()) {
+            // Unwrapping the connection to its own type must not give out the pooled connection
+            assertSame(connection, connection.unwrap(Connection.class));
+        }
+        assertEquals(0, subject.getLeasedConnections());
+
+        assertTrue(subject.isWrapperFor(HikariDataSource.class));
+        assertSame(pool.getSource(), subject.unwrap(HikariDataSource.class));
+        // The unwrapped pool may be used at any time, it must stay open
+        assertFalse(pool.closeIfIdle(0));
+        pool.close();
+    }
+
+    @Test
+    public void testPluginConnectionQuotaFollowsPoolSize() throws SQLException {
+        final PluginDataSource subject = new PluginDataSource("test", size -> {
+            throw new SQLException();
+        }, 2, 4, 100);
+        assertEquals(2, subject.getMaxConnections());
+        subject.ensurePoolSize(3);
+        assertEquals(3, subject.getMaxConnections());
+        subject.ensurePoolSize(8);
+        assertEquals(4, subject.getMaxConnections());
+        subject.ensurePoolSize(2);
+        assertEquals(4, subject.getMaxConnections());
+        assertEquals(0, subject.getLeasedConnections());
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.user;
+
+import com.mojang.authlib.GameProfile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.UUID;
+
+public class UserIndexTest {
+
+    private final UUID previous = UUID.randomUUID();
+    private final UUID current = UUID.randomUUID();
+
+    @After
+    public void clear() {
+        UserIndex.clear();
+    }
+
+    @Test
+    public void testLastHolderOfReusedName() {
+        UserIndex.add(new GameProfile(this.previous, "Name"));
+        UserIndex.add(new GameProfile(this.current, "name"));
+        Assert.assertEquals(this.current, UserIndex.getIdByName("NAME", null));
+    }
+
+    @Test
+    public void testReturningHolderOfReusedName() {
+        UserIndex.add(new GameProfile(this.previous, "Name"));
+        UserIndex.add(new GameProfile(this.current, "name"));
+        // The previous holder logged in again
+        UserIndex.add(new GameProfile(this.previous, "Name"));
+        Assert.assertEquals(this.previous, UserIndex.getIdByName("name", null));
+    }
+
+    @Test
+    public void testCurrentHolderIsPreferred() {
+        UserIndex.add(new GameProfile(this.previous, "Name"));
+        UserIndex.add(new GameProfile(this.current, "name"));
+        Assert.assertEquals(this.previous, UserIndex.getIdByName("name", this.previous));
+        Assert.assertEquals(this.current, UserIndex.getIdByName("name", UUID.randomUUID()));
+    }
+
+    @Test
+    public void testRenamedHolderLosesName() {
+        UserIndex.add(new GameProfile(this.previous, "Name"));
+        UserIndex.add(new GameProfile(this.current, "name"));
+        UserIndex.update(new GameProfile(this.current, "Other"));
+        Assert.assertEquals(this.previous, UserIndex.getIdByName("name", null));
+        Assert.assertEquals(this.current, UserIndex.getIdByName("other", null));
+    }
+
+}
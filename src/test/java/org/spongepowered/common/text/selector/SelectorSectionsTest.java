@@ -0,0 +1,61 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.text.selector;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SelectorSectionsTest {
+
+    @Test
+    public void testUnboundedHeightSearchesAllSections() {
+        // e.g. @e[x=0,z=0,dx=10,dz=10] without dy
+        assertEquals(0, SelectorSections.getMinSection(Double.NEGATIVE_INFINITY));
+        assertEquals(15, SelectorSections.getMaxSection(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testHeightsBeyondIntRange() {
+        assertEquals(0, SelectorSections.getMinSection(-1.0E12D));
+        assertEquals(15, SelectorSections.getMaxSection(1.0E12D));
+    }
+
+    @Test
+    public void testHeightsOutsideWorld() {
+        assertEquals(0, SelectorSections.getMinSection(-64.0D));
+        assertEquals(15, SelectorSections.getMaxSection(300.0D));
+        assertEquals(15, SelectorSections.getMinSection(300.0D));
+    }
+
+    @Test
+    public void testBoundedHeightIncludesEntityRadius() {
+        // Entities may be stored in the section below or above their position
+        assertEquals(3, SelectorSections.getMinSection(65.0D));
+        assertEquals(4, SelectorSections.getMinSection(66.0D));
+        assertEquals(4, SelectorSections.getMaxSection(77.0D));
+        assertEquals(5, SelectorSections.getMaxSection(78.0D));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import net.minecraft.world.Explosion;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.common.interfaces.world.IMixinExplosion;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExplosionCoalescerTest {
+
+    private static Explosion mockExplosion() {
+        final Explosion explosion = Mockito.mock(Explosion.class, Mockito.withSettings().extraInterfaces(IMixinExplosion.class));
+        final AtomicInteger mergeCount = new AtomicInteger(1);
+        Mockito.when(((IMixinExplosion) explosion).getMergeCount()).thenAnswer(invocation -> mergeCount.get());
+        Mockito.doAnswer(invocation -> {
+            mergeCount.set((Integer) invocation.getArguments()[0]);
+            return null;
+        }).when((IMixinExplosion) explosion).setMergeCount(Mockito.anyInt());
+        return explosion;
+    }
+
+    @Test
+    public void testMergeIntoQueuedExplosion() {
+        final ExplosionCoalescer coalescer = new ExplosionCoalescer();
+        assertNull(coalescer.merge(0.5D, 64.0D, 0.5D, 4.0F, false, true));
+
+        final Explosion explosion = mockExplosion();
+        coalescer.queue(explosion, null, 0.5D, 64.0D, 0.5D, 4.0F, false, true, null);
+        assertSame(explosion, coalescer.merge(0.5D, 64.0D, 0.5D, 4.0F, false, true));
+        assertSame(explosion, coalescer.merge(0.5D, 64.0D, 0.5D, 4.0F, false, true));
+        assertEquals(3, ((IMixinExplosion) explosion).getMergeCount());
+    }
+
+    @Test
+    public void testMergeNearbyOrigin() {
+        final ExplosionCoalescer coalescer = new ExplosionCoalescer();
+        final Explosion explosion = mockExplosion();
+        coalescer.queue(explosion, null, 0.5D, 64.0D, 0.5D, 4.0F, false, true, null);
+        assertSame(explosion, coalescer.merge(0.5D + 1.0E-6D, 64.0D, 0.5D + 0.001D, 4.0F, false, true));
+        assertEquals(2, ((IMixinExplosion) explosion).getMergeCount());
+    }
+
+    @Test
+    public void testDifferentExplosionsAreNotMerged() {
+        final ExplosionCoalescer coalescer = new ExplosionCoalescer();
+        final Explosion explosion = mockExplosion();
+        coalescer.queue(explosion, null, 0.5D, 64.0D, 0.5D, 4.0F, false, true, null);
+        assertNull(coalescer.merge(1.5D, 64.0D, 0.5D, 4.0F, false, true));
+        assertNull(coalescer.merge(0.5D, 64.0D + ExplosionCoalescer.ORIGIN_PRECISION, 0.5D, 4.0F, false, true));
+        assertNull(coalescer.merge(0.5D, 64.0D, 0.5D, 3.0F, false, true));
+        assertNull(coalescer.merge(0.5D, 64.0D, 0.5D, 4.0F, true, true));
+        assertNull(coalescer.merge(0.5D, 64.0D, 0.5D, 4.0F, false, false));
+        assertEquals(1, ((IMixinExplosion) explosion).getMergeCount());
+    }
+
+    @Test
+    public void testDrainInQueueOrder() {
+        final ExplosionCoalescer coalescer = new ExplosionCoalescer();
+        final Explosion first = mockExplosion();
+        final Explosion second = mockExplosion();
+        coalescer.queue(first, null, 0.5D, 64.0D, 0.5D, 4.0F, false, true, null);
+        coalescer.queue(second, null, 10.5D, 64.0D, 0.5D, 4.0F, false, true, null);
+        coalescer.merge(0.5D, 64.0D, 0.5D, 4.0F, false, true);
+
+        final List<ExplosionCoalescer.Pending> drained = coalescer.drain();
+        assertEquals(2, drained.size());
+        assertSame(first, drained.get(0).getExplosion());
+        assertSame(second, drained.get(1).getExplosion());
+        assertTrue(coalescer.isEmpty());
+        assertNull(coalescer.merge(0.5D, 64.0D, 0.5D, 4.0F, false, true));
+    }
+}